@@ -20,15 +20,21 @@ package com.github.retrooper.packetevents.event;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.exception.InvalidHandshakeException;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
 public class EventManager {
+    private static final PacketListenerCommon[] NO_LISTENERS = new PacketListenerCommon[0];
     private final Map<Byte, Set<PacketListenerCommon>> listenersMap = new ConcurrentHashMap<>();
+    private volatile DispatchTable dispatchTable = new DispatchTable(NO_LISTENERS, NO_LISTENERS, new PacketListenerCommon[0][]);
 
     /**
      * Call the PacketEvent.
@@ -44,23 +50,19 @@ public class EventManager {
     }
 
     public void callEvent(PacketEvent event, @Nullable Runnable postCallListenerAction) {
-        for (byte priority = PacketListenerPriority.LOWEST.getId(); priority <= PacketListenerPriority.MONITOR.getId(); priority++) {
-            Set<PacketListenerCommon> listeners = listenersMap.get(priority);
-            if (listeners != null) {
-                for (PacketListenerCommon listener : listeners) {
-                    try {
-                        event.call(listener);
-                    } catch (Exception t) {
-                        // ignore handshake exceptions
-                        if (t.getClass() != InvalidHandshakeException.class) {
-                            PacketEvents.getAPI().getLogger().log(Level.WARNING, "PacketEvents caught an unhandled exception while calling your listener.", t);
-                        }
-                    }
-                    if (postCallListenerAction != null) {
-                        postCallListenerAction.run();
-                    }
+        PacketListenerCommon[] listeners = dispatchTable.getListeners(event);
+        for (PacketListenerCommon listener : listeners) {
+            try {
+                event.call(listener);
+            } catch (Exception t) {
+                // ignore handshake exceptions
+                if (t.getClass() != InvalidHandshakeException.class) {
+                    PacketEvents.getAPI().getLogger().log(Level.WARNING, "PacketEvents caught an unhandled exception while calling your listener.", t);
                 }
             }
+            if (postCallListenerAction != null) {
+                postCallListenerAction.run();
+            }
         }
         // For performance reasons, we don't want to re-encode the packet if it's not needed.
         if (event instanceof ProtocolPacketEvent && !((ProtocolPacketEvent<?>) event).needsReEncode()) {
@@ -69,6 +71,16 @@ public class EventManager {
 
     }
 
+    /**
+     * Check whether any registered listener would be notified about packets of this type.
+     *
+     * @param packetType Packet type
+     * @return Whether calling a packet event of this type would reach a listener
+     */
+    public boolean hasListeners(PacketTypeCommon packetType) {
+        return dispatchTable.getPacketListeners(packetType).length != 0;
+    }
+
     public PacketListenerCommon registerListener(PacketListener listener, PacketListenerPriority priority) {
         PacketListenerCommon packetListenerAbstract = listener.asAbstract(priority);
         return registerListener(packetListenerAbstract);
@@ -80,13 +92,11 @@ public class EventManager {
      * @param listener {@link PacketListenerCommon}
      */
     public PacketListenerCommon registerListener(PacketListenerCommon listener) {
-        byte priority = listener.getPriority().getId();
-        Set<PacketListenerCommon> listenerSet = listenersMap.get(priority);
-        if (listenerSet == null) {
-            listenerSet = ConcurrentHashMap.newKeySet();
+        synchronized (listenersMap) {
+            byte priority = listener.getPriority().getId();
+            listenersMap.computeIfAbsent(priority, k -> ConcurrentHashMap.newKeySet()).add(listener);
+            rebuildDispatchTable();
         }
-        listenerSet.add(listener);
-        listenersMap.put(priority, listenerSet);
         return listener;
     }
 
@@ -103,9 +113,13 @@ public class EventManager {
     }
 
     public void unregisterListener(PacketListenerCommon listener) {
-        Set<PacketListenerCommon> listenerSet = listenersMap.get(listener.getPriority().getId());
-        if (listenerSet == null) return;
-        listenerSet.remove(listener);
+        synchronized (listenersMap) {
+            Set<PacketListenerCommon> listenerSet = listenersMap.get(listener.getPriority().getId());
+            if (listenerSet == null) return;
+            if (listenerSet.remove(listener)) {
+                rebuildDispatchTable();
+            }
+        }
     }
 
     public void unregisterListeners(PacketListenerCommon... listeners) {
@@ -119,6 +133,97 @@ public class EventManager {
      * Unregister all dynamic packet event listeners.
      */
     public void unregisterAllListeners() {
-        listenersMap.clear();
+        synchronized (listenersMap) {
+            listenersMap.clear();
+            rebuildDispatchTable();
+        }
+    }
+
+    // Must be called while holding the listenersMap lock
+    private void rebuildDispatchTable() {
+        List<PacketListenerCommon> listeners = new ArrayList<>();
+        for (byte priority = PacketListenerPriority.LOWEST.getId(); priority <= PacketListenerPriority.MONITOR.getId(); priority++) {
+            Set<PacketListenerCommon> listenerSet = listenersMap.get(priority);
+            if (listenerSet != null) {
+                listeners.addAll(listenerSet);
+            }
+        }
+
+        // Resolve which dispatch ids each listener is interested in, null meaning all of them
+        List<BitSet> interests = new ArrayList<>(listeners.size());
+        List<PacketListenerCommon> genericListeners = new ArrayList<>();
+        int maxDispatchId = -1;
+        for (PacketListenerCommon listener : listeners) {
+            Set<PacketTypeCommon> packetTypes = listener.getPacketTypes();
+            if (packetTypes == null) {
+                interests.add(null);
+                genericListeners.add(listener);
+                continue;
+            }
+            BitSet interest = new BitSet();
+            for (PacketTypeCommon packetType : packetTypes) {
+                int dispatchId = packetType.getDispatchId();
+                if (dispatchId >= 0) {
+                    interest.set(dispatchId);
+                    maxDispatchId = Math.max(maxDispatchId, dispatchId);
+                }
+            }
+            interests.add(interest);
+        }
+
+        PacketListenerCommon[] genericArray = toArray(genericListeners);
+        PacketListenerCommon[][] packetListeners = new PacketListenerCommon[maxDispatchId + 1][];
+        List<PacketListenerCommon> buffer = new ArrayList<>();
+        for (int dispatchId = 0; dispatchId < packetListeners.length; dispatchId++) {
+            buffer.clear();
+            for (int i = 0; i < listeners.size(); i++) {
+                BitSet interest = interests.get(i);
+                if (interest == null || interest.get(dispatchId)) {
+                    buffer.add(listeners.get(i));
+                }
+            }
+            // Share the generic array where possible, most packet types don't have dedicated listeners
+            packetListeners[dispatchId] = buffer.size() == genericArray.length ? genericArray : toArray(buffer);
+        }
+        dispatchTable = new DispatchTable(toArray(listeners), genericArray, packetListeners);
+    }
+
+    private static PacketListenerCommon[] toArray(List<PacketListenerCommon> listeners) {
+        return listeners.isEmpty() ? NO_LISTENERS : listeners.toArray(new PacketListenerCommon[0]);
+    }
+
+    /**
+     * Immutable snapshot of all registered listeners, sorted by priority.
+     * A new table is published on every (un)registration, so calling events never needs to lock.
+     */
+    private static final class DispatchTable {
+        private final PacketListenerCommon[] listeners;
+        // Listeners without a packet type filter
+        private final PacketListenerCommon[] genericListeners;
+        // Indexed by PacketTypeCommon#getDispatchId
+        private final PacketListenerCommon[][] packetListeners;
+
+        private DispatchTable(PacketListenerCommon[] listeners, PacketListenerCommon[] genericListeners,
+                              PacketListenerCommon[][] packetListeners) {
+            this.listeners = listeners;
+            this.genericListeners = genericListeners;
+            this.packetListeners = packetListeners;
+        }
+
+        private PacketListenerCommon[] getListeners(PacketEvent event) {
+            if (event instanceof ProtocolPacketEvent) {
+                return getPacketListeners(((ProtocolPacketEvent<?>) event).getPacketType());
+            }
+            return listeners;
+        }
+
+        private PacketListenerCommon[] getPacketListeners(@Nullable PacketTypeCommon packetType) {
+            int dispatchId = packetType == null ? -1 : packetType.getDispatchId();
+            if (dispatchId < 0 || dispatchId >= packetListeners.length) {
+                // No filtered listener is interested in this packet type
+                return genericListeners;
+            }
+            return packetListeners[dispatchId];
+        }
     }
 }
@@ -18,9 +18,19 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Set;
+
 public interface PacketListener {
     default PacketListenerAbstract asAbstract(PacketListenerPriority priority) {
         return new PacketListenerAbstract(priority) {
+            @Override
+            public @Nullable Set<PacketTypeCommon> getPacketTypes() {
+                return PacketListener.this.getPacketTypes();
+            }
+
             @Override
             public void onUserConnect(UserConnectEvent event) {
                 PacketListener.this.onUserConnect(event);
@@ -53,6 +63,14 @@ public interface PacketListener {
         };
     }
 
+    /**
+     * @see PacketListenerCommon#getPacketTypes()
+     */
+    @Nullable
+    default Set<PacketTypeCommon> getPacketTypes() {
+        return null;
+    }
+
     default void onUserConnect(UserConnectEvent event) {
     }
 
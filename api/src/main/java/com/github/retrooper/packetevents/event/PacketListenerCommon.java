@@ -18,9 +18,13 @@
 
 package com.github.retrooper.packetevents.event;
 
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import org.jetbrains.annotations.Nullable;
+
 import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract packet listener.
@@ -43,6 +47,20 @@ public abstract class PacketListenerCommon {
         return priority;
     }
 
+    /**
+     * The packet types this listener wants to be notified about in
+     * {@link #onPacketReceive(PacketReceiveEvent)} and {@link #onPacketSend(PacketSendEvent)}.
+     * Packets of any other type will skip this listener entirely.
+     * Non-packet events, such as {@link UserConnectEvent}, are always delivered.
+     * This is only queried by the {@link EventManager} when listeners are (un)registered.
+     *
+     * @return Packet types this listener is interested in, or null to listen to all packets
+     */
+    @Nullable
+    public Set<PacketTypeCommon> getPacketTypes() {
+        return null;
+    }
+
     public void onUserConnect(UserConnectEvent event) {
     }
 
@@ -29,18 +29,54 @@ import com.github.retrooper.packetevents.protocol.ConnectionState;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.configuration.server.WrapperConfigServerRegistryData;
 import com.github.retrooper.packetevents.wrapper.handshaking.client.WrapperHandshakingClientHandshake;
 import com.github.retrooper.packetevents.wrapper.login.server.WrapperLoginServerLoginSuccess;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBlockChange;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkDataBulk;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerJoinGame;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange;
 import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerRespawn;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerUnloadChunk;
 
 import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
 
 public class InternalPacketListener extends PacketListenerAbstract {
+    // Packets the user's state is tracked with
+    private static final Set<PacketTypeCommon> PACKET_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            PacketType.Handshaking.Client.HANDSHAKE,
+            PacketType.Login.Server.LOGIN_SUCCESS,
+            PacketType.Login.Client.LOGIN_SUCCESS_ACK,
+            PacketType.Configuration.Server.REGISTRY_DATA,
+            PacketType.Configuration.Server.CONFIGURATION_END,
+            PacketType.Configuration.Client.CONFIGURATION_END_ACK,
+            PacketType.Play.Server.JOIN_GAME,
+            PacketType.Play.Server.RESPAWN,
+            PacketType.Play.Server.CONFIGURATION_START,
+            PacketType.Play.Client.CONFIGURATION_ACK
+    )));
+    // Packets the chunk cache is kept up to date with
+    private static final Set<PacketTypeCommon> CHUNK_CACHE_PACKET_TYPES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            PacketType.Play.Server.CHUNK_DATA,
+            PacketType.Play.Server.MAP_CHUNK_BULK,
+            PacketType.Play.Server.UNLOAD_CHUNK,
+            PacketType.Play.Server.BLOCK_CHANGE,
+            PacketType.Play.Server.MULTI_BLOCK_CHANGE
+    )));
 
     public InternalPacketListener() {
         this(PacketListenerPriority.LOWEST);
@@ -50,6 +86,20 @@ public class InternalPacketListener extends PacketListenerAbstract {
         super(priority);
     }
 
+    /**
+     * Only the packets this listener handles, so packets nobody else listens to don't need an event.
+     * The chunk cache packets are included if the chunk cache is enabled when this listener is registered.
+     */
+    @Override
+    public Set<PacketTypeCommon> getPacketTypes() {
+        if (!PacketEvents.getAPI().getSettings().isChunkCacheEnabled()) {
+            return PACKET_TYPES;
+        }
+        Set<PacketTypeCommon> packetTypes = new HashSet<>(PACKET_TYPES);
+        packetTypes.addAll(CHUNK_CACHE_PACKET_TYPES);
+        return packetTypes;
+    }
+
     @Override
     public void onPacketSend(PacketSendEvent event) {
         User user = event.getUser();
@@ -102,6 +152,7 @@ public class InternalPacketListener extends PacketListenerAbstract {
             WrapperPlayServerJoinGame joinGame = new WrapperPlayServerJoinGame(event);
             user.setEntityId(joinGame.getEntityId());
             user.setDimension(joinGame.getDimension());
+            user.getChunkCache().clear();
             if (event.getServerVersion().isOlderThanOrEquals(ServerVersion.V_1_16_5)) {
                 return; // Fixed world height, no tags are sent to the client
             }
@@ -128,6 +179,8 @@ public class InternalPacketListener extends PacketListenerAbstract {
         else if (event.getPacketType() == PacketType.Play.Server.RESPAWN) {
             WrapperPlayServerRespawn respawn = new WrapperPlayServerRespawn(event);
             user.setDimension(respawn.getDimension());
+            // The server sends the chunks again after a respawn
+            user.getChunkCache().clear();
             if (event.getServerVersion().isOlderThanOrEquals(ServerVersion.V_1_16_5)) {
                 return; // Fixed world height, no tags are sent to the client
             }
@@ -142,6 +195,60 @@ public class InternalPacketListener extends PacketListenerAbstract {
             user.setEncoderState(ConnectionState.CONFIGURATION);
         } else if (event.getPacketType() == PacketType.Configuration.Server.CONFIGURATION_END) {
             user.setEncoderState(ConnectionState.PLAY);
+        } else if (PacketEvents.getAPI().getSettings().isChunkCacheEnabled()) {
+            updateChunkCache(event, user);
+        }
+    }
+
+    // The wrappers created here are reused by the listeners after us, so the chunks are only decoded once
+    private void updateChunkCache(PacketSendEvent event, User user) {
+        PacketWrapper<?> wrapper;
+        if (event.getPacketType() == PacketType.Play.Server.CHUNK_DATA) {
+            wrapper = new WrapperPlayServerChunkData(event);
+        } else if (event.getPacketType() == PacketType.Play.Server.MAP_CHUNK_BULK) {
+            wrapper = new WrapperPlayServerChunkDataBulk(event);
+        } else if (event.getPacketType() == PacketType.Play.Server.UNLOAD_CHUNK) {
+            wrapper = new WrapperPlayServerUnloadChunk(event);
+        } else if (event.getPacketType() == PacketType.Play.Server.BLOCK_CHANGE) {
+            wrapper = new WrapperPlayServerBlockChange(event);
+        } else if (event.getPacketType() == PacketType.Play.Server.MULTI_BLOCK_CHANGE) {
+            wrapper = new WrapperPlayServerMultiBlockChange(event);
+        } else {
+            return;
+        }
+        // The listeners after us may still cancel or change the packet, so wait until it is sent
+        event.getPostTasks().add(() -> {
+            if (event.isCancelled()) {
+                return;
+            }
+            // No wrapper is left if the packet wasn't encoded again, in which case it is sent as we read it
+            PacketWrapper<?> last = event.getLastUsedWrapper();
+            updateChunkCache(user, event.getServerVersion(), wrapper.getClass().isInstance(last) ? last : wrapper);
+        });
+    }
+
+    private static void updateChunkCache(User user, ServerVersion serverVersion, PacketWrapper<?> wrapper) {
+        ChunkCache chunkCache = user.getChunkCache();
+        if (wrapper instanceof WrapperPlayServerChunkData) {
+            chunkCache.updateColumn(((WrapperPlayServerChunkData) wrapper).getColumn(), serverVersion);
+        } else if (wrapper instanceof WrapperPlayServerChunkDataBulk) {
+            WrapperPlayServerChunkDataBulk chunkDataBulk = (WrapperPlayServerChunkDataBulk) wrapper;
+            int[] x = chunkDataBulk.getX();
+            int[] z = chunkDataBulk.getZ();
+            BaseChunk[][] chunks = chunkDataBulk.getChunks();
+            byte[][] biomeData = chunkDataBulk.getBiomeData();
+            for (int i = 0; i < chunks.length; i++) {
+                chunkCache.putColumn(new Column(x[i], z[i], true, chunks[i], null, biomeData[i]));
+            }
+        } else if (wrapper instanceof WrapperPlayServerUnloadChunk) {
+            WrapperPlayServerUnloadChunk unloadChunk = (WrapperPlayServerUnloadChunk) wrapper;
+            chunkCache.removeColumn(unloadChunk.getChunkX(), unloadChunk.getChunkZ());
+        } else if (wrapper instanceof WrapperPlayServerBlockChange) {
+            WrapperPlayServerBlockChange blockChange = (WrapperPlayServerBlockChange) wrapper;
+            Vector3i position = blockChange.getBlockPosition();
+            chunkCache.setBlock(position.getX(), position.getY(), position.getZ(), blockChange.getBlockId());
+        } else if (wrapper instanceof WrapperPlayServerMultiBlockChange) {
+            chunkCache.setBlocks(((WrapperPlayServerMultiBlockChange) wrapper).getBlocks());
         }
     }
 
@@ -19,7 +19,10 @@
 package com.github.retrooper.packetevents.manager.protocol;
 
 import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.netty.channel.FlushConsolidator;
 import com.github.retrooper.packetevents.protocol.ProtocolVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
@@ -27,7 +30,11 @@ import com.github.retrooper.packetevents.util.PacketTransformationUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import org.jetbrains.annotations.ApiStatus;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -80,6 +87,36 @@ public interface ProtocolManager {
         }
     }
 
+    /**
+     * Send a packet, but coalesce the flush with every other batched packet sent to this channel
+     * in the same event loop turn, instead of flushing the channel for every single packet.
+     * Useful when sending many packets at once, for example when broadcasting to many players.
+     *
+     * @param channel Channel to send the packet to
+     * @param byteBuf Packet buffer
+     */
+    default void sendPacketBatched(Object channel, Object byteBuf) {
+        FlushConsolidator.write(channel, () -> writePacket(channel, byteBuf));
+    }
+
+    /**
+     * Like {@link #sendPacketBatched(Object, Object)}, but only calls the encoders after ours.
+     *
+     * @param channel Channel to send the packet to
+     * @param byteBuf Packet buffer
+     */
+    default void sendPacketSilentlyBatched(Object channel, Object byteBuf) {
+        FlushConsolidator.write(channel, () -> writePacketSilently(channel, byteBuf));
+    }
+
+    default void sendPacketsBatched(Object channel, Object... byteBuf) {
+        FlushConsolidator.write(channel, () -> writePackets(channel, byteBuf));
+    }
+
+    default void sendPacketsSilentlyBatched(Object channel, Object... byteBuf) {
+        FlushConsolidator.write(channel, () -> writePacketsSilently(channel, byteBuf));
+    }
+
     default void receivePackets(Object channel, Object... byteBuf) {
         for (Object buf : byteBuf) {
             receivePacket(channel, buf);
@@ -132,6 +169,16 @@ public interface ProtocolManager {
         writePacketsSilently(channel, transformed);
     }
 
+    default void sendPacketBatched(Object channel, PacketWrapper<?> wrapper) {
+        Object[] transformed = transformWrappers(wrapper, channel, true);
+        sendPacketsBatched(channel, transformed);
+    }
+
+    default void sendPacketSilentlyBatched(Object channel, PacketWrapper<?> wrapper) {
+        Object[] transformed = transformWrappers(wrapper, channel, true);
+        sendPacketsSilentlyBatched(channel, transformed);
+    }
+
     default void receivePacket(Object channel, PacketWrapper<?> wrapper) {
         Object[] transformed = transformWrappers(wrapper, channel, false);
         receivePackets(channel, transformed);
@@ -142,6 +189,88 @@ public interface ProtocolManager {
         receivePacketsSilently(channel, transformed);
     }
 
+    /**
+     * Send a packet to many users, while only encoding it once per distinct client version and connection state.
+     * On backend servers the encoded packet doesn't depend on the client version at all.
+     * As send listeners may rewrite the buffer of a packet, every user is sent a copy of the encoded buffer.
+     *
+     * @param users   Users to send the packet to
+     * @param wrapper Packet
+     */
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, false);
+    }
+
+    /**
+     * Send a packet to many users without calling listeners, see {@link #broadcastPacket(Collection, PacketWrapper)}.
+     * Since nothing can rewrite the packet on the way, every user is sent a retained duplicate of the same buffer.
+     *
+     * @param users   Users to send the packet to
+     * @param wrapper Packet
+     */
+    default void broadcastPacketSilently(Collection<User> users, PacketWrapper<?> wrapper) {
+        broadcastPacket(users, wrapper, true);
+    }
+
+    @ApiStatus.Internal
+    default void broadcastPacket(Collection<User> users, PacketWrapper<?> wrapper, boolean silently) {
+        if (users.isEmpty()) {
+            return;
+        }
+        boolean proxy = PacketEvents.getAPI().getInjector().isProxy();
+        // The packet id depends on the connection state, and on proxies also on the client version of each user
+        Map<List<Object>, List<User>> recipients = new HashMap<>();
+        for (User user : users) {
+            List<Object> key = Arrays.asList(proxy ? user.getClientVersion() : null, user.getEncoderState());
+            recipients.computeIfAbsent(key, k -> new ArrayList<>()).add(user);
+        }
+        PacketWrapper<?>[] wrappers = PacketTransformationUtil.transform(wrapper);
+        ServerVersion serverVersion = wrapper.getServerVersion();
+        for (List<User> group : recipients.values()) {
+            Object[] buffers = new Object[wrappers.length];
+            try {
+                for (int i = 0; i < wrappers.length; i++) {
+                    //Encoding on proxies changes the server version to the client version of the user
+                    wrappers[i].setServerVersion(serverVersion);
+                    wrappers[i].buffer = null;
+                    try {
+                        wrappers[i].prepareForSend(group.get(0).getChannel(), true, proxy);
+                    } finally {
+                        buffers[i] = wrappers[i].buffer;
+                        wrappers[i].buffer = null;
+                    }
+                }
+                for (User user : group) {
+                    Object[] packets = new Object[buffers.length];
+                    try {
+                        for (int i = 0; i < buffers.length; i++) {
+                            packets[i] = silently ? ByteBufHelper.retainedDuplicate(buffers[i]) : ByteBufHelper.copy(buffers[i]);
+                        }
+                    } catch (RuntimeException | Error e) {
+                        for (Object packet : packets) {
+                            if (packet != null) {
+                                ByteBufHelper.release(packet);
+                            }
+                        }
+                        throw e;
+                    }
+                    // From here on, the packets belong to the channel
+                    if (silently) {
+                        sendPacketsSilently(user.getChannel(), packets);
+                    } else {
+                        sendPackets(user.getChannel(), packets);
+                    }
+                }
+            } finally {
+                for (Object buffer : buffers) {
+                    if (buffer != null) {
+                        ByteBufHelper.release(buffer);
+                    }
+                }
+            }
+        }
+    }
+
     default User getUser(Object channel) {
         Object pipeline = ChannelHelper.getPipeline(channel);
         return USERS.get(pipeline);
@@ -19,6 +19,7 @@
 package com.github.retrooper.packetevents.netty.buffer;
 
 import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 
 public interface ByteBufOperator {
     int capacity(Object buffer);
@@ -113,4 +114,55 @@ public interface ByteBufOperator {
     default void writeBoolean(Object buffer, boolean value) {
         writeByte(buffer, value ? 1 : 0);
     }
+
+    // Implementations should override these, decoding one byte at a time through this interface is slow
+    default int readVarInt(Object buffer) {
+        int value = 0;
+        int length = 0;
+        byte currentByte;
+        do {
+            currentByte = readByte(buffer);
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    default void readLongs(Object buffer, long[] destination, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            destination[i] = readLong(buffer);
+        }
+    }
+
+    default void writeLongs(Object buffer, long[] source, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            writeLong(buffer, source[i]);
+        }
+    }
+
+    default String readUTF8(Object buffer, int length) {
+        int readerIndex = readerIndex(buffer);
+        String string = toString(buffer, readerIndex, length, StandardCharsets.UTF_8);
+        readerIndex(buffer, readerIndex + length);
+        return string;
+    }
+
+    // The length has to be the encoded length of the string, see StringUtil#getUTF8Length
+    default void writeUTF8(Object buffer, String string, int length) {
+        writeBytes(buffer, string.getBytes(StandardCharsets.UTF_8));
+    }
+
+    default void writeVarInt(Object buffer, int value) {
+        while (true) {
+            if ((value & ~0x7F) == 0) {
+                writeByte(buffer, value);
+                return;
+            }
+            writeByte(buffer, (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+    }
 }
@@ -56,5 +56,10 @@ public interface ChannelOperator {
 
     void runInEventLoop(Object channel, Runnable runnable);
 
+    // Implementations which can't tell return false, so callers schedule their work on the event loop instead
+    default boolean inEventLoop(Object channel) {
+        return false;
+    }
+
     Object pooledByteBuf(Object channel);
 }
@@ -0,0 +1,69 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.netty.channel;
+
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces flushes of batched writes, similar to netty's FlushConsolidationHandler.
+ * The first batched write of a channel schedules a single flush at the end of the current event loop turn,
+ * every other write until then is flushed along with it.
+ * Since this doesn't add a handler to the pipeline, it doesn't move any ViaVersion or ProtocolSupport handlers.
+ */
+@ApiStatus.Internal
+public final class FlushConsolidator {
+    // Channels with a scheduled flush, only modified on the event loop of the respective channel
+    private static final Set<Object> PENDING_FLUSHES = ConcurrentHashMap.newKeySet();
+
+    private FlushConsolidator() {
+    }
+
+    /**
+     * Run a write on the event loop of the channel, and make sure it is flushed once the event loop is done
+     * with the current batch of tasks.
+     * If we are already on the event loop, the write runs immediately,
+     * so it keeps its order with other packets sent on the event loop.
+     *
+     * @param channel Channel to write to
+     * @param write   Write which should not flush the channel
+     */
+    public static void write(Object channel, Runnable write) {
+        if (ChannelHelper.inEventLoop(channel)) {
+            writeInEventLoop(channel, write);
+        } else {
+            // Writes from other threads are queued on the event loop anyway, and scheduling the flush there
+            // makes sure that it is queued after every batched write which preceded it.
+            // The task doesn't check the thread again, as it may not be detectable, see ChannelOperator#inEventLoop
+            ChannelHelper.runInEventLoop(channel, () -> writeInEventLoop(channel, write));
+        }
+    }
+
+    private static void writeInEventLoop(Object channel, Runnable write) {
+        write.run();
+        if (PENDING_FLUSHES.add(channel)) {
+            ChannelHelper.runInEventLoop(channel, () -> {
+                PENDING_FLUSHES.remove(channel);
+                ChannelHelper.flush(channel);
+            });
+        }
+    }
+}
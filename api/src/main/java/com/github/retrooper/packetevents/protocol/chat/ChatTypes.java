@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -29,7 +30,7 @@ import java.util.Map;
 public class ChatTypes {
     private static final Map<String, ChatType> CHAT_TYPE_MAP = new HashMap<>();
     //Key - mappings version, value - map with chat type ids and chat types
-    private static final Map<Byte, Map<Integer, ChatType>> CHAT_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdRegistry<ChatType> CHAT_TYPE_ID_MAP = new VersionedIdRegistry<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("chat/chat_type_mappings",
             ClientVersion.V_1_18_2,
             ClientVersion.V_1_19,
@@ -58,8 +59,7 @@ public class ChatTypes {
         CHAT_TYPE_MAP.put(chatType.getName().toString(), chatType);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, ChatType> typeIdMap = CHAT_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(chatType.getId(version), chatType);
+            CHAT_TYPE_ID_MAP.put(index, chatType.getId(version), chatType);
         }
         return chatType;
     }
@@ -71,7 +71,7 @@ public class ChatTypes {
 
     public static ChatType getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        return CHAT_TYPE_ID_MAP.get((byte) index).get(id);
+        return CHAT_TYPE_ID_MAP.get(index, id);
     }
 
     public static final ChatType CHAT = define("chat");
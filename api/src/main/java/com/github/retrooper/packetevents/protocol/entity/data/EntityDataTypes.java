@@ -35,6 +35,7 @@ import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.Quaternion4f;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import com.github.retrooper.packetevents.util.Vector3f;
 import com.github.retrooper.packetevents.util.Vector3i;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
@@ -54,7 +55,7 @@ public class EntityDataTypes {
     //nbt was added in 1.12
 
     private static final Map<String, EntityDataType<?>> ENTITY_DATA_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, EntityDataType<?>>> ENTITY_DATA_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdRegistry<EntityDataType<?>> ENTITY_DATA_TYPE_ID_MAP = new VersionedIdRegistry<>();
     protected static final TypesBuilder TYPES_BUILDER = new TypesBuilder("entity/entity_data_type_mappings",
             ClientVersion.V_1_8,
             ClientVersion.V_1_9,
@@ -214,8 +215,7 @@ public class EntityDataTypes {
 
     public static EntityDataType<?> getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, EntityDataType<?>> typeIdMap = ENTITY_DATA_TYPE_ID_MAP.get((byte) index);
-        return typeIdMap.get(id);
+        return ENTITY_DATA_TYPE_ID_MAP.get(index, id);
     }
 
     public static EntityDataType<?> getByName(String name) {
@@ -230,9 +230,7 @@ public class EntityDataTypes {
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
             if (index == -1) continue;
-            Map<Integer, EntityDataType<?>> typeIdMap = ENTITY_DATA_TYPE_ID_MAP
-                    .computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(type.getId(version), type);
+            ENTITY_DATA_TYPE_ID_MAP.put(index, type.getId(version), type);
         }
         return type;
     }
@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
@@ -31,8 +32,8 @@ import java.util.Optional;
 public class EntityTypes {
     private static final Map<String, EntityType> ENTITY_TYPE_MAP = new HashMap<>();
     //Key - mappings version, value - map with entity type ids and entity types
-    private static final Map<Byte, Map<Integer, EntityType>> ENTITY_TYPE_ID_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, EntityType>> LEGACY_ENTITY_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdRegistry<EntityType> ENTITY_TYPE_ID_MAP = new VersionedIdRegistry<>();
+    private static final VersionedIdRegistry<EntityType> LEGACY_ENTITY_TYPE_ID_MAP = new VersionedIdRegistry<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("entity/entity_type_mappings",
             ClientVersion.V_1_10,
             ClientVersion.V_1_11,
@@ -97,14 +98,12 @@ public class EntityTypes {
         ENTITY_TYPE_MAP.put(entityType.getName().toString(), entityType);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, EntityType> typeIdMap = ENTITY_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(entityType.getId(version), entityType);
+            ENTITY_TYPE_ID_MAP.put(index, entityType.getId(version), entityType);
         }
 
         for (ClientVersion version : LEGACY_TYPES_BUILDER.getVersions()) {
             int index = LEGACY_TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, EntityType> legacyTypeIdMap = LEGACY_ENTITY_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-            legacyTypeIdMap.put(entityType.getLegacyId(version), entityType);
+            LEGACY_ENTITY_TYPE_ID_MAP.put(index, entityType.getLegacyId(version), entityType);
         }
 
         return entityType;
@@ -131,7 +130,7 @@ public class EntityTypes {
 
     public static EntityType getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        return ENTITY_TYPE_ID_MAP.get((byte) index).get(id);
+        return ENTITY_TYPE_ID_MAP.get(index, id);
     }
 
     public static EntityType getByLegacyId(ClientVersion version, int id) {
@@ -139,7 +138,7 @@ public class EntityTypes {
             return null;
         }
         int index = LEGACY_TYPES_BUILDER.getDataIndex(version);
-        return LEGACY_ENTITY_TYPE_ID_MAP.get((byte) index).get(id);
+        return LEGACY_ENTITY_TYPE_ID_MAP.get(index, id);
     }
 
     // Credit to ViaVersion for these categories
@@ -22,6 +22,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
@@ -29,7 +30,7 @@ import java.util.Map;
 
 public class EnchantmentTypes {
     private static final Map<String, EnchantmentType> ENCHANTMENT_TYPE_MAPPINGS = new HashMap<>();
-    private static final Map<Byte, Map<Integer, EnchantmentType>> ENCHANTMENT_TYPE_ID_MAPPINGS = new HashMap<>();
+    private static final VersionedIdRegistry<EnchantmentType> ENCHANTMENT_TYPE_ID_MAPPINGS = new VersionedIdRegistry<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("enchantment/enchantment_type_mappings",
             ClientVersion.V_1_12,
             ClientVersion.V_1_13,
@@ -65,8 +66,7 @@ public class EnchantmentTypes {
         ENCHANTMENT_TYPE_MAPPINGS.put(enchantmentType.getName().toString(), enchantmentType);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, EnchantmentType> typeIdMap = ENCHANTMENT_TYPE_ID_MAPPINGS.computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(enchantmentType.getId(version), enchantmentType);
+            ENCHANTMENT_TYPE_ID_MAPPINGS.put(index, enchantmentType.getId(version), enchantmentType);
         }
         return enchantmentType;
     }
@@ -79,8 +79,7 @@ public class EnchantmentTypes {
     @Nullable
     public static EnchantmentType getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, EnchantmentType> typeIdMap = ENCHANTMENT_TYPE_ID_MAPPINGS.get((byte) index);
-        return typeIdMap.get(id);
+        return ENCHANTMENT_TYPE_ID_MAPPINGS.get(index, id);
     }
 
     public static final EnchantmentType ALL_DAMAGE_PROTECTION = define("protection");
@@ -24,6 +24,7 @@ import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -39,7 +40,7 @@ import java.util.stream.Collectors;
 
 public class ItemTypes {
     private static final Map<String, ItemType> ITEM_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, ItemType>> ITEM_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdRegistry<ItemType> ITEM_TYPE_ID_MAP = new VersionedIdRegistry<>();
     private static final Map<StateType, ItemType> HELD_TO_PLACED_MAP = new HashMap<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("item/item_type_mappings",
             ClientVersion.V_1_12,
@@ -1479,8 +1480,7 @@ public class ItemTypes {
         ITEM_TYPE_MAP.put(type.getName().getKey(), type);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, ItemType> typeIdMap = ITEM_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(type.getId(version), type);
+            ITEM_TYPE_ID_MAP.put(index, type.getId(version), type);
         }
         return type;
     }
@@ -1493,8 +1493,7 @@ public class ItemTypes {
     @NotNull
     public static ItemType getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, ItemType> typeIdMap = ITEM_TYPE_ID_MAP.get((byte) index);
-        return typeIdMap.getOrDefault(id, ItemTypes.AIR);
+        return ITEM_TYPE_ID_MAP.getOrDefault(index, id, ItemTypes.AIR);
     }
 
     public static ItemType getTypePlacingState(StateType type) {
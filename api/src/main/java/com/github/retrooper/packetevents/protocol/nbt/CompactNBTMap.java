@@ -0,0 +1,233 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Insertion ordered map for the tags of a compound.
+ * Most compounds only have a few tags, so they are kept in two small arrays which are searched linearly,
+ * and only once there are more than {@link #MAX_ARRAY_SIZE} tags, they are moved to a {@link LinkedHashMap}.
+ */
+final class CompactNBTMap extends AbstractMap<String, NBT> {
+    private static final int MAX_ARRAY_SIZE = 8;
+    private static final String[] EMPTY_KEYS = new String[0];
+    private static final NBT[] EMPTY_VALUES = new NBT[0];
+
+    private String[] keys = EMPTY_KEYS;
+    private NBT[] values = EMPTY_VALUES;
+    private int size;
+    // Only used once there are too many tags for the arrays
+    private Map<String, NBT> map;
+    private int modCount;
+    private Set<Entry<String, NBT>> entrySet;
+
+    private int indexOf(Object key) {
+        String[] keys = this.keys;
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(keys[i], key)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int size() {
+        return map != null ? map.size() : size;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return map != null ? map.containsKey(key) : indexOf(key) != -1;
+    }
+
+    @Override
+    public NBT get(Object key) {
+        if (map != null) {
+            return map.get(key);
+        }
+        int index = indexOf(key);
+        return index != -1 ? values[index] : null;
+    }
+
+    @Override
+    public NBT put(String key, NBT value) {
+        if (map != null) {
+            return map.put(key, value);
+        }
+        int index = indexOf(key);
+        if (index != -1) {
+            NBT previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        if (size == MAX_ARRAY_SIZE) {
+            map = new LinkedHashMap<>();
+            for (int i = 0; i < size; i++) {
+                map.put(keys[i], values[i]);
+            }
+            keys = EMPTY_KEYS;
+            values = EMPTY_VALUES;
+            size = 0;
+            modCount++;
+            return map.put(key, value);
+        }
+        if (size == keys.length) {
+            int capacity = Math.min(MAX_ARRAY_SIZE, Math.max(2, size * 2));
+            String[] keys = new String[capacity];
+            NBT[] values = new NBT[capacity];
+            System.arraycopy(this.keys, 0, keys, 0, size);
+            System.arraycopy(this.values, 0, values, 0, size);
+            this.keys = keys;
+            this.values = values;
+        }
+        keys[size] = key;
+        values[size] = value;
+        size++;
+        modCount++;
+        return null;
+    }
+
+    @Override
+    public NBT remove(Object key) {
+        if (map != null) {
+            return map.remove(key);
+        }
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        NBT previous = values[index];
+        removeAt(index);
+        return previous;
+    }
+
+    private void removeAt(int index) {
+        int moved = size - index - 1;
+        System.arraycopy(keys, index + 1, keys, index, moved);
+        System.arraycopy(values, index + 1, values, index, moved);
+        size--;
+        keys[size] = null;
+        values[size] = null;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        map = null;
+        keys = EMPTY_KEYS;
+        values = EMPTY_VALUES;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<String, NBT>> entrySet() {
+        Set<Entry<String, NBT>> entrySet = this.entrySet;
+        if (entrySet == null) {
+            this.entrySet = entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private final class EntrySet extends AbstractSet<Entry<String, NBT>> {
+        @Override
+        public Iterator<Entry<String, NBT>> iterator() {
+            return map != null ? map.entrySet().iterator() : new ArrayIterator();
+        }
+
+        @Override
+        public int size() {
+            return CompactNBTMap.this.size();
+        }
+
+        @Override
+        public void clear() {
+            CompactNBTMap.this.clear();
+        }
+    }
+
+    private final class ArrayIterator implements Iterator<Entry<String, NBT>> {
+        private int next;
+        private int last = -1;
+        private int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return next < size;
+        }
+
+        @Override
+        public Entry<String, NBT> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (next >= size) {
+                throw new NoSuchElementException();
+            }
+            last = next++;
+            return new ArrayEntry(last);
+        }
+
+        @Override
+        public void remove() {
+            if (last == -1) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(last);
+            next = last;
+            last = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private final class ArrayEntry extends SimpleEntry<String, NBT> {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        private ArrayEntry(int index) {
+            super(keys[index], values[index]);
+            this.index = index;
+        }
+
+        @Override
+        public NBT setValue(NBT value) {
+            values[index] = value;
+            return super.setValue(value);
+        }
+    }
+}
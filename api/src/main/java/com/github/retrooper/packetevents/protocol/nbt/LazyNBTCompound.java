@@ -0,0 +1,137 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compound which keeps the raw bytes it was read from, and only parses them once it is accessed.
+ * As long as it wasn't accessed, it is written back by copying these bytes.
+ * Any access parses it, as the returned tags could be modified.
+ */
+public class LazyNBTCompound extends NBTCompound {
+
+    // Payload of the compound, including the end tag, null once parsed
+    private byte[] rawTags;
+
+    @ApiStatus.Internal
+    public LazyNBTCompound(byte[] rawTags) {
+        this.rawTags = rawTags;
+    }
+
+    public boolean isParsed() {
+        return rawTags == null;
+    }
+
+    /**
+     * @return The raw payload of this compound, or null if it was already parsed
+     */
+    @ApiStatus.Internal
+    @Nullable
+    public byte[] getRawTags() {
+        return rawTags;
+    }
+
+    private void parse() {
+        byte[] rawTags = this.rawTags;
+        if (rawTags == null) {
+            return;
+        }
+        // Parse into a temporary compound, so a malformed payload leaves this one untouched and unparsed
+        NBTCompound parsed = new NBTCompound();
+        try {
+            ByteBufNBTSerializer.INSTANCE.readCompoundTags(UnpooledByteBufAllocationHelper.wrappedBuffer(rawTags), parsed);
+        } catch (IOException | RuntimeException e) {
+            throw new IllegalStateException("Failed to parse lazy NBT compound", e);
+        }
+        this.tags.putAll(parsed.tags);
+        this.rawTags = null;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        parse();
+        return super.isEmpty();
+    }
+
+    @Override
+    public Set<String> getTagNames() {
+        parse();
+        return super.getTagNames();
+    }
+
+    @Override
+    public Map<String, NBT> getTags() {
+        parse();
+        return super.getTags();
+    }
+
+    @Override
+    public NBT getTagOrNull(String key) {
+        parse();
+        return super.getTagOrNull(key);
+    }
+
+    @Override
+    public NBT removeTag(String key) {
+        parse();
+        return super.removeTag(key);
+    }
+
+    @Override
+    public void setTag(String key, NBT tag) {
+        parse();
+        super.setTag(key, tag);
+    }
+
+    @Override
+    public NBTCompound copy() {
+        byte[] rawTags = this.rawTags;
+        if (rawTags != null) {
+            // The raw bytes are never modified, so they can be shared
+            return new LazyNBTCompound(rawTags);
+        }
+        return super.copy();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        parse();
+        return super.equals(other);
+    }
+
+    @Override
+    public int hashCode() {
+        parse();
+        return super.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        parse();
+        return super.toString();
+    }
+}
@@ -20,13 +20,12 @@ package com.github.retrooper.packetevents.protocol.nbt;
 
 import java.text.MessageFormat;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 
 public class NBTCompound extends NBT {
 
-    protected final Map<String, NBT> tags = new LinkedHashMap<>();
+    protected final Map<String, NBT> tags = new CompactNBTMap();
 
     @Override
     public NBTType<NBTCompound> getType() {
@@ -212,7 +211,7 @@ public class NBTCompound extends NBT {
             if (isEmpty() && ((NBTCompound) other).isEmpty()) {
                 return true;
             }
-            return tags.equals(((NBTCompound) other).tags);
+            return tags.equals(((NBTCompound) other).getTags());
         }
         return false;
     }
@@ -0,0 +1,279 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Backing list of an {@link NBTList} of numbers, which stores the values in a primitive array instead of one
+ * object per tag. Tags are created again when they are accessed, which is fine as number tags are immutable.
+ * If a subclass of the number tag is added, the list falls back to storing the tags themselves.
+ */
+final class PrimitiveNBTList<T extends NBT> extends AbstractList<T> implements RandomAccess {
+    private final Kind kind;
+    // Values of the 32-bit kinds, or the raw bits of the 64-bit kinds
+    private int[] ints;
+    private long[] longs;
+    private int size;
+    // Only used once a tag can't be stored as a primitive
+    private List<T> tags;
+
+    private PrimitiveNBTList(Kind kind) {
+        this.kind = kind;
+        reset();
+    }
+
+    static <T extends NBT> List<T> create(NBTType<T> type) {
+        Kind kind = Kind.of(type);
+        return kind != null ? new PrimitiveNBTList<>(kind) : new ArrayList<>();
+    }
+
+    @Override
+    public int size() {
+        return tags != null ? tags.size() : size;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (tags != null) {
+            return tags.get(index);
+        }
+        checkIndex(index, size);
+        return (T) kind.fromBits(kind.wide ? longs[index] : ints[index]);
+    }
+
+    @Override
+    public T set(int index, T tag) {
+        checkNotNull(tag);
+        if (tags == null && tag.getClass() != kind.tagClass) {
+            inflate();
+        }
+        if (tags != null) {
+            return tags.set(index, tag);
+        }
+        T previous = get(index);
+        store(index, kind.toBits(tag));
+        return previous;
+    }
+
+    @Override
+    public void add(int index, T tag) {
+        checkNotNull(tag);
+        if (tags == null && tag.getClass() != kind.tagClass) {
+            inflate();
+        }
+        if (tags != null) {
+            tags.add(index, tag);
+            modCount++;
+            return;
+        }
+        checkIndex(index, size + 1);
+        int length = kind.wide ? longs.length : ints.length;
+        if (size == length) {
+            int capacity = Math.max(4, length + (length >> 1));
+            if (kind.wide) {
+                long[] longs = new long[capacity];
+                System.arraycopy(this.longs, 0, longs, 0, size);
+                this.longs = longs;
+            } else {
+                int[] ints = new int[capacity];
+                System.arraycopy(this.ints, 0, ints, 0, size);
+                this.ints = ints;
+            }
+        }
+        if (kind.wide) {
+            System.arraycopy(longs, index, longs, index + 1, size - index);
+        } else {
+            System.arraycopy(ints, index, ints, index + 1, size - index);
+        }
+        size++;
+        store(index, kind.toBits(tag));
+        modCount++;
+    }
+
+    @Override
+    public T remove(int index) {
+        if (tags != null) {
+            modCount++;
+            return tags.remove(index);
+        }
+        T previous = get(index);
+        int moved = size - index - 1;
+        if (kind.wide) {
+            System.arraycopy(longs, index + 1, longs, index, moved);
+        } else {
+            System.arraycopy(ints, index + 1, ints, index, moved);
+        }
+        size--;
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        reset();
+        modCount++;
+    }
+
+    private void reset() {
+        tags = null;
+        size = 0;
+        if (kind.wide) {
+            longs = new long[0];
+        } else {
+            ints = new int[0];
+        }
+    }
+
+    private void store(int index, long bits) {
+        if (kind.wide) {
+            longs[index] = bits;
+        } else {
+            ints[index] = (int) bits;
+        }
+    }
+
+    private void inflate() {
+        List<T> tags = new ArrayList<>(Math.max(size, 10));
+        for (int i = 0; i < size; i++) {
+            tags.add(get(i));
+        }
+        this.tags = tags;
+        ints = null;
+        longs = null;
+        size = 0;
+    }
+
+    // Number tags are stored as primitives, so there is no way to store null
+    private static void checkNotNull(NBT tag) {
+        Objects.requireNonNull(tag, "NBT lists can't contain null tags");
+    }
+
+    private static void checkIndex(int index, int size) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    private enum Kind {
+        BYTE(NBTByte.class, false) {
+            @Override
+            long toBits(NBT tag) {
+                return ((NBTByte) tag).getAsByte();
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTByte((byte) bits);
+            }
+        },
+        SHORT(NBTShort.class, false) {
+            @Override
+            long toBits(NBT tag) {
+                return ((NBTShort) tag).getAsShort();
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTShort((short) bits);
+            }
+        },
+        INT(NBTInt.class, false) {
+            @Override
+            long toBits(NBT tag) {
+                return ((NBTInt) tag).getAsInt();
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTInt((int) bits);
+            }
+        },
+        FLOAT(NBTFloat.class, false) {
+            @Override
+            long toBits(NBT tag) {
+                return Float.floatToRawIntBits(((NBTFloat) tag).getAsFloat());
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTFloat(Float.intBitsToFloat((int) bits));
+            }
+        },
+        LONG(NBTLong.class, true) {
+            @Override
+            long toBits(NBT tag) {
+                return ((NBTLong) tag).getAsLong();
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTLong(bits);
+            }
+        },
+        DOUBLE(NBTDouble.class, true) {
+            @Override
+            long toBits(NBT tag) {
+                return Double.doubleToRawLongBits(((NBTDouble) tag).getAsDouble());
+            }
+
+            @Override
+            NBT fromBits(long bits) {
+                return new NBTDouble(Double.longBitsToDouble(bits));
+            }
+        };
+
+        final Class<? extends NBT> tagClass;
+        final boolean wide;
+
+        Kind(Class<? extends NBT> tagClass, boolean wide) {
+            this.tagClass = tagClass;
+            this.wide = wide;
+        }
+
+        abstract long toBits(NBT tag);
+
+        abstract NBT fromBits(long bits);
+
+        @Nullable
+        static Kind of(NBTType<?> type) {
+            if (type == NBTType.BYTE) {
+                return BYTE;
+            } else if (type == NBTType.SHORT) {
+                return SHORT;
+            } else if (type == NBTType.INT) {
+                return INT;
+            } else if (type == NBTType.FLOAT) {
+                return FLOAT;
+            } else if (type == NBTType.LONG) {
+                return LONG;
+            } else if (type == NBTType.DOUBLE) {
+                return DOUBLE;
+            }
+            return null;
+        }
+    }
+}
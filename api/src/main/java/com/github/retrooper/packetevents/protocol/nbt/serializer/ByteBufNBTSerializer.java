@@ -0,0 +1,366 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.nbt.serializer;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.nbt.*;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.io.IOException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map.Entry;
+
+/**
+ * NBT serializer which reads from and writes to netty buffers directly,
+ * producing the same bytes as {@link DefaultNBTSerializer} without any stream wrappers.
+ * Arrays are copied in bulk, and strings are (de)coded as modified UTF-8 in a single pass.
+ */
+public class ByteBufNBTSerializer extends NBTSerializer<Object, Object> {
+
+    public static final ByteBufNBTSerializer INSTANCE = new ByteBufNBTSerializer(true);
+
+    private static final ThreadLocal<StringBuffers> STRING_BUFFERS = ThreadLocal.withInitial(StringBuffers::new);
+
+    /**
+     * @param reuseStringBuffers Whether strings should be (de)coded in per-thread buffers,
+     *                           instead of allocating new arrays for every string
+     */
+    @SuppressWarnings("unchecked")
+    public ByteBufNBTSerializer(boolean reuseStringBuffers) {
+        super(ByteBufHelper::readByte, ByteBufHelper::writeByte,
+                buffer -> readString(buffer, reuseStringBuffers),
+                (buffer, value) -> writeString(buffer, value, reuseStringBuffers));
+        registerType(NBTType.END, 0, buffer -> NBTEnd.INSTANCE, (buffer, tag) -> {
+        });
+        registerType(NBTType.BYTE, 1, buffer -> new NBTByte(ByteBufHelper.readByte(buffer)), (buffer, tag) -> ByteBufHelper.writeByte(buffer, tag.getAsByte()));
+        registerType(NBTType.SHORT, 2, buffer -> new NBTShort(ByteBufHelper.readShort(buffer)), (buffer, tag) -> ByteBufHelper.writeShort(buffer, tag.getAsShort()));
+        registerType(NBTType.INT, 3, buffer -> new NBTInt(ByteBufHelper.readInt(buffer)), (buffer, tag) -> ByteBufHelper.writeInt(buffer, tag.getAsInt()));
+        registerType(NBTType.LONG, 4, buffer -> new NBTLong(ByteBufHelper.readLong(buffer)), (buffer, tag) -> ByteBufHelper.writeLong(buffer, tag.getAsLong()));
+        registerType(NBTType.FLOAT, 5, buffer -> new NBTFloat(ByteBufHelper.readFloat(buffer)), (buffer, tag) -> ByteBufHelper.writeFloat(buffer, tag.getAsFloat()));
+        registerType(NBTType.DOUBLE, 6, buffer -> new NBTDouble(ByteBufHelper.readDouble(buffer)), (buffer, tag) -> ByteBufHelper.writeDouble(buffer, tag.getAsDouble()));
+        registerType(NBTType.STRING, 8,
+                buffer -> new NBTString(readString(buffer, reuseStringBuffers)),
+                (buffer, tag) -> writeString(buffer, tag.getValue(), reuseStringBuffers));
+        registerType(
+                NBTType.BYTE_ARRAY, 7,
+                buffer -> {
+                    byte[] array = new byte[ByteBufHelper.readInt(buffer)];
+                    ByteBufHelper.readBytes(buffer, array);
+                    return new NBTByteArray(array);
+                },
+                (buffer, tag) -> {
+                    byte[] array = tag.getValue();
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    ByteBufHelper.writeBytes(buffer, array);
+                }
+        );
+        registerType(
+                NBTType.INT_ARRAY, 11,
+                buffer -> {
+                    int[] array = new int[ByteBufHelper.readInt(buffer)];
+                    byte[] bytes = new byte[array.length * Integer.BYTES];
+                    ByteBufHelper.readBytes(buffer, bytes);
+                    ByteBuffer.wrap(bytes).asIntBuffer().get(array);
+                    return new NBTIntArray(array);
+                },
+                (buffer, tag) -> {
+                    int[] array = tag.getValue();
+                    ByteBuffer bytes = ByteBuffer.allocate(array.length * Integer.BYTES);
+                    bytes.asIntBuffer().put(array);
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    ByteBufHelper.writeBytes(buffer, bytes.array());
+                }
+        );
+        registerType(
+                NBTType.LONG_ARRAY, 12,
+                buffer -> {
+                    long[] array = new long[ByteBufHelper.readInt(buffer)];
+                    byte[] bytes = new byte[array.length * Long.BYTES];
+                    ByteBufHelper.readBytes(buffer, bytes);
+                    ByteBuffer.wrap(bytes).asLongBuffer().get(array);
+                    return new NBTLongArray(array);
+                },
+                (buffer, tag) -> {
+                    long[] array = tag.getValue();
+                    ByteBuffer bytes = ByteBuffer.allocate(array.length * Long.BYTES);
+                    bytes.asLongBuffer().put(array);
+                    ByteBufHelper.writeInt(buffer, array.length);
+                    ByteBufHelper.writeBytes(buffer, bytes.array());
+                }
+        );
+        registerType(
+                NBTType.COMPOUND, 10,
+                buffer -> {
+                    NBTCompound compound = new NBTCompound();
+                    readCompoundTags(buffer, compound);
+                    return compound;
+                },
+                (buffer, tag) -> {
+                    if (tag instanceof LazyNBTCompound) {
+                        byte[] rawTags = ((LazyNBTCompound) tag).getRawTags();
+                        if (rawTags != null) {
+                            ByteBufHelper.writeBytes(buffer, rawTags);
+                            return;
+                        }
+                    }
+                    for (Entry<String, NBT> entry : tag.getTags().entrySet()) {
+                        NBT value = entry.getValue();
+                        writeTagType(buffer, value.getType());
+                        writeTagName(buffer, entry.getKey());
+                        writeTag(buffer, value);
+                    }
+                    writeTagType(buffer, NBTType.END);
+                }
+        );
+        registerType(
+                NBTType.LIST, 9,
+                buffer -> {
+                    NBTType<? extends NBT> valueType = readTagType(buffer);
+                    int size = ByteBufHelper.readInt(buffer);
+                    if ((valueType == NBTType.END) && (size > 0)) {
+                        throw new IllegalStateException("Missing nbt list values tag type");
+                    }
+                    NBTList<NBT> list = new NBTList<>((NBTType<NBT>) valueType);
+                    for (int i = 0; i < size; i++) {
+                        list.addTag(readTag(buffer, valueType));
+                    }
+                    return list;
+                },
+                (buffer, tag) -> {
+                    writeTagType(buffer, tag.getTagsType());
+                    ByteBufHelper.writeInt(buffer, tag.size());
+                    for (NBT value : ((List<NBT>) tag.getTags())) {
+                        writeTag(buffer, value);
+                    }
+                }
+        );
+    }
+
+    /**
+     * Like {@link #deserializeTag(Object, boolean)}, but compounds are returned as {@link LazyNBTCompound},
+     * which only copy their bytes for now.
+     *
+     * @param from  Buffer to read from
+     * @param named Whether the root tag has a name
+     * @return The read tag, or null if it is an end tag
+     */
+    public NBT deserializeTagLazily(Object from, boolean named) throws IOException {
+        NBTType<?> type = readTagType(from);
+        if (type == NBTType.END) {
+            return null;
+        }
+        if (named) {
+            ByteBufHelper.skipBytes(from, ByteBufHelper.readUnsignedShort(from));
+        }
+        if (type != NBTType.COMPOUND) {
+            return readTag(from, type);
+        }
+        int start = ByteBufHelper.readerIndex(from);
+        skipPayload(from, 10);
+        byte[] rawTags = new byte[ByteBufHelper.readerIndex(from) - start];
+        ByteBufHelper.getBytes(from, start, rawTags);
+        return new LazyNBTCompound(rawTags);
+    }
+
+    /**
+     * Read the tags of a compound payload into an existing compound.
+     */
+    @ApiStatus.Internal
+    public void readCompoundTags(Object from, NBTCompound compound) throws IOException {
+        NBTType<?> valueType;
+        while ((valueType = readTagType(from)) != NBTType.END) {
+            compound.setTag(readTagName(from), readTag(from, valueType));
+        }
+    }
+
+    // Moves past a payload without creating any tags, ids are the ones registered above
+    private static void skipPayload(Object buffer, int id) throws IOException {
+        switch (id) {
+            case 0:
+                break;
+            case 1:
+                ByteBufHelper.skipBytes(buffer, 1);
+                break;
+            case 2:
+                ByteBufHelper.skipBytes(buffer, 2);
+                break;
+            case 3:
+            case 5:
+                ByteBufHelper.skipBytes(buffer, 4);
+                break;
+            case 4:
+            case 6:
+                ByteBufHelper.skipBytes(buffer, 8);
+                break;
+            case 7:
+                ByteBufHelper.skipBytes(buffer, ByteBufHelper.readInt(buffer));
+                break;
+            case 8:
+                ByteBufHelper.skipBytes(buffer, ByteBufHelper.readUnsignedShort(buffer));
+                break;
+            case 9: {
+                int valueId = ByteBufHelper.readByte(buffer);
+                int size = ByteBufHelper.readInt(buffer);
+                for (int i = 0; i < size; i++) {
+                    skipPayload(buffer, valueId);
+                }
+                break;
+            }
+            case 10: {
+                int valueId;
+                while ((valueId = ByteBufHelper.readByte(buffer)) != 0) {
+                    ByteBufHelper.skipBytes(buffer, ByteBufHelper.readUnsignedShort(buffer));
+                    skipPayload(buffer, valueId);
+                }
+                break;
+            }
+            case 11:
+                ByteBufHelper.skipBytes(buffer, ByteBufHelper.readInt(buffer) * Integer.BYTES);
+                break;
+            case 12:
+                ByteBufHelper.skipBytes(buffer, ByteBufHelper.readInt(buffer) * Long.BYTES);
+                break;
+            default:
+                throw new IOException("Unknown nbt type id " + id);
+        }
+    }
+
+    // Same format as DataInput#readUTF
+    private static String readString(Object buffer, boolean reuseBuffers) throws UTFDataFormatException {
+        int length = ByteBufHelper.readUnsignedShort(buffer);
+        if (length == 0) {
+            return "";
+        }
+        StringBuffers buffers = reuseBuffers ? STRING_BUFFERS.get() : null;
+        byte[] bytes = buffers != null ? buffers.bytes(length) : new byte[length];
+        ByteBufHelper.readBytes(buffer, bytes, 0, length);
+
+        int i = 0;
+        while (i < length && bytes[i] > 0) {
+            i++;
+        }
+        if (i == length) {
+            return new String(bytes, 0, length, StandardCharsets.ISO_8859_1);
+        }
+
+        char[] chars = buffers != null ? buffers.chars(length) : new char[length];
+        for (int j = 0; j < i; j++) {
+            chars[j] = (char) bytes[j];
+        }
+        int count = i;
+        while (i < length) {
+            int b = bytes[i] & 0xFF;
+            switch (b >> 4) {
+                case 0: case 1: case 2: case 3: case 4: case 5: case 6: case 7:
+                    chars[count++] = (char) b;
+                    i++;
+                    break;
+                case 12: case 13: {
+                    if (i + 2 > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int b2 = bytes[i + 1];
+                    if ((b2 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i + 1));
+                    }
+                    chars[count++] = (char) (((b & 0x1F) << 6) | (b2 & 0x3F));
+                    i += 2;
+                    break;
+                }
+                case 14: {
+                    if (i + 3 > length) {
+                        throw new UTFDataFormatException("malformed input: partial character at end");
+                    }
+                    int b2 = bytes[i + 1];
+                    int b3 = bytes[i + 2];
+                    if ((b2 & 0xC0) != 0x80 || (b3 & 0xC0) != 0x80) {
+                        throw new UTFDataFormatException("malformed input around byte " + (i + 2));
+                    }
+                    chars[count++] = (char) (((b & 0x0F) << 12) | ((b2 & 0x3F) << 6) | (b3 & 0x3F));
+                    i += 3;
+                    break;
+                }
+                default:
+                    throw new UTFDataFormatException("malformed input around byte " + i);
+            }
+        }
+        return new String(chars, 0, count);
+    }
+
+    // Same format as DataOutput#writeUTF
+    private static void writeString(Object buffer, String value, boolean reuseBuffers) throws UTFDataFormatException {
+        int length = value.length();
+        int utfLength = length;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= 0x800) {
+                utfLength += 2;
+            } else if (c >= 0x80 || c == 0) {
+                utfLength++;
+            }
+        }
+        if (utfLength > 65535) {
+            throw new UTFDataFormatException("encoded string too long: " + utfLength + " bytes");
+        }
+        ByteBufHelper.writeShort(buffer, utfLength);
+        if (utfLength == 0) {
+            return;
+        }
+
+        byte[] bytes = reuseBuffers ? STRING_BUFFERS.get().bytes(utfLength) : new byte[utfLength];
+        int count = 0;
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80 && c != 0) {
+                bytes[count++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[count++] = (byte) (0xC0 | (c >> 6));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            } else {
+                bytes[count++] = (byte) (0xE0 | (c >> 12));
+                bytes[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[count++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        ByteBufHelper.writeBytes(buffer, bytes, 0, utfLength);
+    }
+
+    // Strings are at most 65535 bytes long, so these can't grow out of bounds
+    private static final class StringBuffers {
+        private byte[] bytes = new byte[256];
+        private char[] chars = new char[256];
+
+        byte[] bytes(int length) {
+            if (bytes.length < length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            return bytes;
+        }
+
+        char[] chars(int length) {
+            if (chars.length < length) {
+                chars = new char[Math.max(length, chars.length * 2)];
+            }
+            return chars;
+        }
+    }
+}
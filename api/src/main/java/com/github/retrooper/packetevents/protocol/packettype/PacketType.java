@@ -62,14 +62,16 @@ import com.github.retrooper.packetevents.protocol.packettype.serverbound.Serverb
 import com.github.retrooper.packetevents.protocol.packettype.serverbound.ServerboundPacketType_1_9;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.util.VersionMapper;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class PacketType {
     private static boolean PREPARED = false;
+    // Hands out dense ids to all packet type constants, see PacketTypeCommon#getDispatchId
+    private static final AtomicInteger DISPATCH_ID_COUNTER = new AtomicInteger();
     //TODO UPDATE Update packet type mappings (clientbound pt. 1)
     private static final VersionMapper CLIENTBOUND_PLAY_VERSION_MAPPER = new VersionMapper(
             ClientVersion.V_1_7_10,
@@ -130,6 +132,10 @@ public final class PacketType {
         return PREPARED;
     }
 
+    private static int nextDispatchId() {
+        return DISPATCH_ID_COUNTER.getAndIncrement();
+    }
+
     public static PacketTypeCommon getById(PacketSide side, ConnectionState state, ClientVersion version, int packetID) {
         switch (state) {
             case HANDSHAKING:
@@ -177,6 +183,7 @@ public final class PacketType {
             LEGACY_SERVER_LIST_PING(254);//0xFE in hex
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Client(int id) {
                 this.id = id;
@@ -197,6 +204,11 @@ public final class PacketType {
                 return id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.CLIENT;
@@ -207,6 +219,7 @@ public final class PacketType {
             LEGACY_SERVER_LIST_RESPONSE(254); //0xFE in hex
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Server(int id) {
                 this.id = id;
@@ -221,6 +234,11 @@ public final class PacketType {
                 return id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.SERVER;
@@ -234,6 +252,7 @@ public final class PacketType {
             PING(1);
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Client(int id) {
                 this.id = id;
@@ -255,6 +274,11 @@ public final class PacketType {
             }
 
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.CLIENT;
@@ -266,6 +290,7 @@ public final class PacketType {
             PONG(1);
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Server(int id) {
                 this.id = id;
@@ -286,6 +311,11 @@ public final class PacketType {
                 return id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.SERVER;
@@ -303,6 +333,7 @@ public final class PacketType {
             LOGIN_SUCCESS_ACK(3);
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Client(int id) {
                 this.id = id;
@@ -327,6 +358,11 @@ public final class PacketType {
                 return id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.CLIENT;
@@ -343,6 +379,7 @@ public final class PacketType {
             LOGIN_PLUGIN_REQUEST(4);
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Server(int id) {
                 this.id = id;
@@ -370,6 +407,11 @@ public final class PacketType {
                 return id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.SERVER;
@@ -390,6 +432,7 @@ public final class PacketType {
             RESOURCE_PACK_STATUS(0x05);
 
             private final int id;
+            private final int dispatchId = nextDispatchId();
 
             Client(int id) {
                 this.id = id;
@@ -419,6 +462,11 @@ public final class PacketType {
                 return this.id;
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.CLIENT;
@@ -441,8 +489,9 @@ public final class PacketType {
             RESOURCE_PACK_REMOVE;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final VersionedIdRegistry<PacketTypeCommon> PACKET_TYPE_ID_MAP = new VersionedIdRegistry<>();
             private final int[] ids;
+            private final int dispatchId = nextDispatchId();
 
             Server() {
                 this.ids = new int[CLIENTBOUND_CONFIG_VERSION_MAPPER.getVersions().length];
@@ -462,8 +511,7 @@ public final class PacketType {
                     int id = constant.ordinal();
                     Configuration.Server value = Configuration.Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    PACKET_TYPE_ID_MAP.put(index, id, value);
                 }
                 INDEX++;
             }
@@ -477,8 +525,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_CONFIG_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PACKET_TYPE_ID_MAP.get(index, packetId);
             }
 
             @Deprecated
@@ -495,6 +542,11 @@ public final class PacketType {
                 return this.ids[index];
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.SERVER;
@@ -571,8 +623,9 @@ public final class PacketType {
             SLOT_STATE_CHANGE;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final VersionedIdRegistry<PacketTypeCommon> PACKET_TYPE_ID_MAP = new VersionedIdRegistry<>();
             private final int[] ids;
+            private final int dispatchId = nextDispatchId();
 
             Client() {
                 ids = new int[SERVERBOUND_PLAY_VERSION_MAPPER.getVersions().length];
@@ -585,8 +638,7 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = SERVERBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                return packetIdMap.get(packetId);
+                return PACKET_TYPE_ID_MAP.get(index, packetId);
             }
 
             private static void loadPacketIds(Enum<?>[] enumConstants) {
@@ -595,9 +647,7 @@ public final class PacketType {
                     int id = constant.ordinal();
                     Client value = Client.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index,
-                            k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    PACKET_TYPE_ID_MAP.put(index, id, value);
                 }
                 INDEX++;
             }
@@ -632,6 +682,11 @@ public final class PacketType {
                 return ids[index];
             }
 
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
+            }
+
             @Override
             public PacketSide getSide() {
                 return PacketSide.CLIENT;
@@ -795,8 +850,9 @@ public final class PacketType {
             TICKING_STEP;
 
             private static int INDEX = 0;
-            private static final Map<Byte, Map<Integer, PacketTypeCommon>> PACKET_TYPE_ID_MAP = new HashMap<>();
+            private static final VersionedIdRegistry<PacketTypeCommon> PACKET_TYPE_ID_MAP = new VersionedIdRegistry<>();
             private final int[] ids;
+            private final int dispatchId = nextDispatchId();
 
             Server() {
                 ids = new int[CLIENTBOUND_PLAY_VERSION_MAPPER.getVersions().length];
@@ -817,8 +873,12 @@ public final class PacketType {
                     PacketType.prepare();
                 }
                 int index = CLIENTBOUND_PLAY_VERSION_MAPPER.getIndex(version);
-                Map<Integer, PacketTypeCommon> map = PACKET_TYPE_ID_MAP.get((byte) index);
-                return map.get(packetId);
+                return PACKET_TYPE_ID_MAP.get(index, packetId);
+            }
+
+            @Override
+            public int getDispatchId() {
+                return dispatchId;
             }
 
             @Override
@@ -832,8 +892,7 @@ public final class PacketType {
                     int id = constant.ordinal();
                     Server value = Server.valueOf(constant.name());
                     value.ids[index] = id;
-                    Map<Integer, PacketTypeCommon> packetIdMap = PACKET_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-                    packetIdMap.put(id, value);
+                    PACKET_TYPE_ID_MAP.put(index, id, value);
                 }
                 INDEX++;
             }
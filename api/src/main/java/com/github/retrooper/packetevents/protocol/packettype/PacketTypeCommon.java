@@ -29,5 +29,16 @@ public interface PacketTypeCommon {
 
     int getId(ClientVersion version);
 
+    /**
+     * Dense id which is unique across all packet type constants, regardless of their
+     * connection state or side. It is assigned at runtime and thus not stable between restarts.
+     * The {@link com.github.retrooper.packetevents.event.EventManager} indexes its listener dispatch table with it.
+     *
+     * @return Dispatch id, or -1 if this packet type has none
+     */
+    default int getDispatchId() {
+        return -1;
+    }
+
     PacketSide getSide();
 }
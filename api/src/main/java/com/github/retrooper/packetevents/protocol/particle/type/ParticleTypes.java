@@ -23,6 +23,7 @@ import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.resources.ResourceLocation;
 import com.github.retrooper.packetevents.util.TypesBuilder;
 import com.github.retrooper.packetevents.util.TypesBuilderData;
+import com.github.retrooper.packetevents.util.VersionedIdRegistry;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 import java.util.HashMap;
@@ -32,7 +33,7 @@ import java.util.function.Function;
 
 public class ParticleTypes {
     private static final Map<String, ParticleType> PARTICLE_TYPE_MAP = new HashMap<>();
-    private static final Map<Byte, Map<Integer, ParticleType>> PARTICLE_TYPE_ID_MAP = new HashMap<>();
+    private static final VersionedIdRegistry<ParticleType> PARTICLE_TYPE_ID_MAP = new VersionedIdRegistry<>();
     private static final TypesBuilder TYPES_BUILDER = new TypesBuilder("particle/particle_type_mappings",
             ClientVersion.V_1_12_2,
             ClientVersion.V_1_13,
@@ -85,8 +86,7 @@ public class ParticleTypes {
         PARTICLE_TYPE_MAP.put(particleType.getName().toString(), particleType);
         for (ClientVersion version : TYPES_BUILDER.getVersions()) {
             int index = TYPES_BUILDER.getDataIndex(version);
-            Map<Integer, ParticleType> typeIdMap = PARTICLE_TYPE_ID_MAP.computeIfAbsent((byte) index, k -> new HashMap<>());
-            typeIdMap.put(particleType.getId(version), particleType);
+            PARTICLE_TYPE_ID_MAP.put(index, particleType.getId(version), particleType);
         }
         return particleType;
     }
@@ -108,8 +108,7 @@ public class ParticleTypes {
 
     public static ParticleType getById(ClientVersion version, int id) {
         int index = TYPES_BUILDER.getDataIndex(version);
-        Map<Integer, ParticleType> typeIdMap = PARTICLE_TYPE_ID_MAP.get((byte) index);
-        return typeIdMap.get(id);
+        return PARTICLE_TYPE_ID_MAP.get(index, id);
     }
 
     public static final ParticleType AMBIENT_ENTITY_EFFECT = define("ambient_entity_effect");
@@ -30,6 +30,7 @@ import com.github.retrooper.packetevents.protocol.chat.message.ChatMessage_v1_16
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.NBTList;
 import com.github.retrooper.packetevents.protocol.world.Dimension;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
 import com.github.retrooper.packetevents.util.adventure.AdventureSerializer;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.github.retrooper.packetevents.wrapper.play.server.*;
@@ -51,6 +52,7 @@ public class User {
     private int totalWorldHeight = 256;
     private List<NBTCompound> worldNBT;
     private Dimension dimension = new Dimension(0);
+    private final ChunkCache chunkCache = new ChunkCache(this);
 
     public User(Object channel,
                 ConnectionState connectionState, ClientVersion clientVersion,
@@ -144,6 +146,18 @@ public class User {
         PacketEvents.getAPI().getProtocolManager().sendPacketSilently(channel, wrapper);
     }
 
+    public void sendPacketBatched(Object buffer) {
+        PacketEvents.getAPI().getProtocolManager().sendPacketBatched(channel, buffer);
+    }
+
+    public void sendPacketBatched(PacketWrapper<?> wrapper) {
+        PacketEvents.getAPI().getProtocolManager().sendPacketBatched(channel, wrapper);
+    }
+
+    public void sendPacketSilentlyBatched(PacketWrapper<?> wrapper) {
+        PacketEvents.getAPI().getProtocolManager().sendPacketSilentlyBatched(channel, wrapper);
+    }
+
     public void writePacket(PacketWrapper<?> wrapper) {
         PacketEvents.getAPI().getProtocolManager().writePacket(channel, wrapper);
     }
@@ -271,6 +285,17 @@ public class User {
         this.dimension = dimension;
     }
 
+    /**
+     * Chunks the client currently has loaded, as long as
+     * {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#chunkCache(boolean)} is enabled.
+     * Otherwise, the cache stays empty.
+     *
+     * @return The chunk cache of this user
+     */
+    public ChunkCache getChunkCache() {
+        return chunkCache;
+    }
+
     @Nullable
     public NBTCompound getWorldNBT(String worldName) {
         if (worldNBT == null) {
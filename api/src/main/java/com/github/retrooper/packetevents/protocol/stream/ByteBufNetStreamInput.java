@@ -0,0 +1,182 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.stream;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+
+import java.io.IOException;
+
+/**
+ * {@link NetStreamInput} reading from a buffer instead of an {@link java.io.InputStream}.
+ * This avoids copying the data into a byte array first, and reads every value at once
+ * instead of going through the synchronized single byte reads of a {@link java.io.ByteArrayInputStream}.
+ * Reading past the end of the buffer throws an {@link IllegalStateException}, like reading past the end of the stream.
+ */
+public class ByteBufNetStreamInput extends NetStreamInput {
+    private final Object buffer;
+
+    /**
+     * @param buffer Buffer to read from, usually a slice bounding the data which should be read
+     */
+    public ByteBufNetStreamInput(Object buffer) {
+        super(null);
+        this.buffer = buffer;
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    /**
+     * @return Index of the next byte which will be read from the buffer
+     */
+    public int getReaderIndex() {
+        return ByteBufHelper.readerIndex(buffer);
+    }
+
+    /**
+     * Copy the bytes which were read since the reader index was at the given index.
+     *
+     * @param readerIndex Earlier reader index, see {@link #getReaderIndex()}
+     * @return Bytes read since then
+     */
+    public byte[] copyReadBytes(int readerIndex) {
+        byte[] bytes = new byte[getReaderIndex() - readerIndex];
+        ByteBufHelper.getBytes(buffer, readerIndex, bytes);
+        return bytes;
+    }
+
+    private void ensureReadable(int length) {
+        if (ByteBufHelper.readableBytes(buffer) < length) {
+            throw new IllegalStateException("Tried to read " + length + " bytes, but only "
+                    + ByteBufHelper.readableBytes(buffer) + " are left");
+        }
+    }
+
+    @Override
+    public int read() {
+        return ByteBufHelper.isReadable(buffer) ? ByteBufHelper.readByte(buffer) & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        int readable = ByteBufHelper.readableBytes(buffer);
+        if (readable == 0) {
+            return -1;
+        }
+        len = Math.min(len, readable);
+        ByteBufHelper.readBytes(buffer, b, off, len);
+        return len;
+    }
+
+    @Override
+    public long skip(long n) {
+        int skipped = (int) Math.min(Math.max(n, 0), ByteBufHelper.readableBytes(buffer));
+        ByteBufHelper.skipBytes(buffer, skipped);
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return ByteBufHelper.readableBytes(buffer);
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public void mark(int readlimit) {
+    }
+
+    @Override
+    public void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public byte readByte() {
+        ensureReadable(Byte.BYTES);
+        return ByteBufHelper.readByte(buffer);
+    }
+
+    @Override
+    public int readUnsignedByte() {
+        return readByte() & 0xFF;
+    }
+
+    @Override
+    public short readShort() {
+        ensureReadable(Short.BYTES);
+        return ByteBufHelper.readShort(buffer);
+    }
+
+    @Override
+    public int readUnsignedShort() {
+        return readShort() & 0xFFFF;
+    }
+
+    @Override
+    public int readInt() {
+        ensureReadable(Integer.BYTES);
+        return ByteBufHelper.readInt(buffer);
+    }
+
+    @Override
+    public int readVarInt() {
+        try {
+            return ByteBufHelper.readVarInt(buffer);
+        } catch (IndexOutOfBoundsException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public long readLong() {
+        ensureReadable(Long.BYTES);
+        return ByteBufHelper.readLong(buffer);
+    }
+
+    @Override
+    public byte[] readBytes(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("Array cannot have length less than 0.");
+        }
+        ensureReadable(length);
+        byte[] bytes = new byte[length];
+        ByteBufHelper.readBytes(buffer, bytes);
+        return bytes;
+    }
+
+    @Override
+    public int readLongs(long[] l, int offset, int length) {
+        // Like the stream, read as many longs as there are left
+        int read = Math.min(length, ByteBufHelper.readableBytes(buffer) / Long.BYTES);
+        ByteBufHelper.readLongs(buffer, l, offset, read);
+        return read;
+    }
+}
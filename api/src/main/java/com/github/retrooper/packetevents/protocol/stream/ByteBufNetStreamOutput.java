@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.stream;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+
+/**
+ * {@link NetStreamOutput} writing to a buffer instead of an {@link java.io.OutputStream}.
+ * This lets data be written straight into the packet, instead of collecting it in a
+ * {@link java.io.ByteArrayOutputStream} and copying it into the packet afterwards.
+ */
+public class ByteBufNetStreamOutput extends NetStreamOutput {
+    private final Object buffer;
+
+    public ByteBufNetStreamOutput(Object buffer) {
+        super(null);
+        this.buffer = buffer;
+    }
+
+    public Object getBuffer() {
+        return buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        ByteBufHelper.writeByte(buffer, b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        ByteBufHelper.writeBytes(buffer, b, off, len);
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public void writeByte(int b) {
+        ByteBufHelper.writeByte(buffer, b);
+    }
+
+    @Override
+    public void writeShort(int s) {
+        ByteBufHelper.writeShort(buffer, s);
+    }
+
+    @Override
+    public void writeInt(int i) {
+        ByteBufHelper.writeInt(buffer, i);
+    }
+
+    @Override
+    public void writeVarInt(int i) {
+        ByteBufHelper.writeVarInt(buffer, i);
+    }
+
+    @Override
+    public void writeLong(long l) {
+        ByteBufHelper.writeLong(buffer, l);
+    }
+
+    @Override
+    public void writeLongs(long[] l, int length) {
+        ByteBufHelper.writeLongs(buffer, l, 0, length);
+    }
+}
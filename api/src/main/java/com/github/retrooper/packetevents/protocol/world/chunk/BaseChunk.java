@@ -63,6 +63,24 @@ public interface BaseChunk {
 
     boolean isEmpty();
 
+    /**
+     * Create a deep copy of this section, so it can be modified without affecting this one.
+     * By default, only the blocks are copied, into a section from {@link #create()}.
+     *
+     * @return The copied section
+     */
+    default BaseChunk copy() {
+        BaseChunk copy = create();
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    copy.set(x, y, z, getBlockId(x, y, z));
+                }
+            }
+        }
+        return copy;
+    }
+
     static BaseChunk create() {
         if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return new Chunk_v1_18();
@@ -31,6 +31,10 @@ public class ByteArray3d {
         this.data = array;
     }
 
+    public ByteArray3d copy() {
+        return new ByteArray3d(this.data.clone());
+    }
+
     public byte[] getData() {
         return this.data;
     }
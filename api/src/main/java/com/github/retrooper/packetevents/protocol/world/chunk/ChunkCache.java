@@ -0,0 +1,218 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+
+package com.github.retrooper.packetevents.protocol.world.chunk;
+
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_16.Chunk_v1_9;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange.EncodedBlock;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Chunks the server sent to a user, keyed by {@link PacketWrapper#getChunkKey(int, int)}.
+ * It is kept up to date from the send path if {@link com.github.retrooper.packetevents.settings.PacketEventsSettings#chunkCache(boolean)}
+ * is enabled, so listeners don't have to decode and store the chunks themselves.
+ * Only packets which were actually sent are cached, after every listener had the chance to cancel or change them.
+ * <p>
+ * Columns are copied when they are cached, so listeners modifying the column of a packet don't affect the cache.
+ * Block changes never modify a cached column, they replace it with one that only copies the changed sections,
+ * and shares every other section with the previous column.
+ * Columns taken from the cache therefore stay a consistent snapshot, and can be read from any thread.
+ * Don't modify them, as that would break this for everyone else reading them.
+ */
+public class ChunkCache {
+    private final User user;
+    private final Map<Long, Column> columns = new ConcurrentHashMap<>();
+
+    public ChunkCache(User user) {
+        this.user = user;
+    }
+
+    @Nullable
+    public Column getColumn(int chunkX, int chunkZ) {
+        return getColumn(PacketWrapper.getChunkKey(chunkX, chunkZ));
+    }
+
+    @Nullable
+    public Column getColumn(long chunkKey) {
+        return columns.get(chunkKey);
+    }
+
+    /**
+     * @return Read only view of the cached columns, keyed by their chunk key
+     */
+    public Map<Long, Column> getColumns() {
+        return Collections.unmodifiableMap(columns);
+    }
+
+    /**
+     * Get the block at the given world position, as the client sees it.
+     *
+     * @return The block id, or 0 (air) if the chunk isn't cached or the position is outside the world
+     */
+    public int getBlockId(int x, int y, int z) {
+        Column column = getColumn(x >> 4, z >> 4);
+        if (column == null) {
+            return 0;
+        }
+        BaseChunk[] chunks = column.getChunks();
+        int sectionIndex = (y - user.getMinWorldHeight()) >> 4;
+        if (sectionIndex < 0 || sectionIndex >= chunks.length || chunks[sectionIndex] == null) {
+            return 0;
+        }
+        return chunks[sectionIndex].getBlockId(x & 15, y & 15, z & 15);
+    }
+
+    /**
+     * Handle the column of a chunk data packet the user received.
+     * Before 1.9, chunks are unloaded by sending them without any sections, which removes the column instead.
+     *
+     * @param column        Column of the packet
+     * @param serverVersion Version the packet was sent with
+     */
+    public void updateColumn(Column column, ServerVersion serverVersion) {
+        if (serverVersion.isOlderThan(ServerVersion.V_1_9) && column.isFullChunk() && isWithoutSections(column.getChunks())) {
+            removeColumn(column.getX(), column.getZ());
+        } else {
+            putColumn(column);
+        }
+    }
+
+    /**
+     * Cache a copy of a column the user received.
+     * Columns which aren't full chunks (before 1.17) only replace the sections they contain,
+     * so they are ignored if the column isn't cached yet.
+     *
+     * @param column Column to cache
+     */
+    public void putColumn(Column column) {
+        long chunkKey = PacketWrapper.getChunkKey(column.getX(), column.getZ());
+        if (column.isFullChunk()) {
+            Column copy = column.copy();
+            for (BaseChunk chunk : copy.getChunks()) {
+                discardRawData(chunk);
+            }
+            columns.put(chunkKey, copy);
+            return;
+        }
+        columns.computeIfPresent(chunkKey, (key, cached) -> {
+            BaseChunk[] chunks = cached.getChunks().clone();
+            BaseChunk[] updated = column.getChunks();
+            for (int i = 0; i < Math.min(chunks.length, updated.length); i++) {
+                if (updated[i] != null) {
+                    chunks[i] = updated[i].copy();
+                    discardRawData(chunks[i]);
+                }
+            }
+            return cached.withChunks(chunks);
+        });
+    }
+
+    public void removeColumn(int chunkX, int chunkZ) {
+        columns.remove(PacketWrapper.getChunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Remove every column, like the client does when it joins or respawns in a world.
+     */
+    public void clear() {
+        columns.clear();
+    }
+
+    /**
+     * Change a block of a cached column, the change is ignored if the column isn't cached.
+     */
+    public void setBlock(int x, int y, int z, int blockId) {
+        setBlocks(new EncodedBlock[]{new EncodedBlock(blockId, x, y, z)});
+    }
+
+    /**
+     * Change blocks of cached columns, changes of columns which aren't cached are ignored.
+     * Each column is replaced once, with a copy of every section that changed.
+     *
+     * @param blocks Blocks with their world position
+     */
+    public void setBlocks(EncodedBlock[] blocks) {
+        int start = 0;
+        while (start < blocks.length) {
+            // Changes are usually sent per column, so replace each run of blocks in the same column at once
+            long chunkKey = chunkKey(blocks[start]);
+            int end = start + 1;
+            while (end < blocks.length && chunkKey(blocks[end]) == chunkKey) {
+                end++;
+            }
+            int from = start;
+            int to = end;
+            columns.computeIfPresent(chunkKey, (key, column) -> setBlocks(column, blocks, from, to));
+            start = end;
+        }
+    }
+
+    private Column setBlocks(Column column, EncodedBlock[] blocks, int from, int to) {
+        BaseChunk[] chunks = column.getChunks().clone();
+        // Sections which were already copied, and can be modified
+        boolean[] copied = new boolean[chunks.length];
+        int minHeight = user.getMinWorldHeight();
+        for (int i = from; i < to; i++) {
+            EncodedBlock block = blocks[i];
+            int sectionIndex = (block.getY() - minHeight) >> 4;
+            if (sectionIndex < 0 || sectionIndex >= chunks.length) {
+                continue;
+            }
+            BaseChunk chunk = chunks[sectionIndex];
+            if (!copied[sectionIndex]) {
+                // Sections which weren't sent are empty
+                chunk = chunk != null ? chunk.copy() : BaseChunk.create();
+                chunks[sectionIndex] = chunk;
+                copied[sectionIndex] = true;
+            }
+            chunk.set(block.getX() & 15, block.getY() & 15, block.getZ() & 15, block.getBlockId());
+        }
+        return column.withChunks(chunks);
+    }
+
+    private static boolean isWithoutSections(BaseChunk[] chunks) {
+        for (BaseChunk chunk : chunks) {
+            if (chunk != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Cached sections are never written as they are, so the bytes they were read from would only take up memory
+    private static void discardRawData(@Nullable BaseChunk chunk) {
+        if (chunk instanceof Chunk_v1_18) {
+            ((Chunk_v1_18) chunk).discardRawData();
+        } else if (chunk instanceof Chunk_v1_9) {
+            ((Chunk_v1_9) chunk).discardRawData();
+        }
+    }
+
+    private static long chunkKey(EncodedBlock block) {
+        return PacketWrapper.getChunkKey(block.getX() >> 4, block.getZ() >> 4);
+    }
+}
@@ -113,6 +113,55 @@ public class Column {
         this.biomeDataBytes = biomeDataBytes != null ? Arrays.copyOf(biomeDataBytes, biomeDataBytes.length) : null;
     }
 
+    private Column(Column column, BaseChunk[] chunks) {
+        this.x = column.x;
+        this.z = column.z;
+        this.fullChunk = column.fullChunk;
+        this.chunks = chunks;
+        this.tileEntities = column.tileEntities;
+        this.hasHeightMaps = column.hasHeightMaps;
+        this.heightMaps = column.heightMaps;
+        this.hasBiomeData = column.hasBiomeData;
+        this.biomeDataInts = column.biomeDataInts;
+        this.biomeDataBytes = column.biomeDataBytes;
+    }
+
+    private Column(Column column) {
+        this.x = column.x;
+        this.z = column.z;
+        this.fullChunk = column.fullChunk;
+        this.chunks = new BaseChunk[column.chunks.length];
+        for (int i = 0; i < this.chunks.length; i++) {
+            this.chunks[i] = column.chunks[i] != null ? column.chunks[i].copy() : null;
+        }
+        this.tileEntities = new TileEntity[column.tileEntities.length];
+        for (int i = 0; i < this.tileEntities.length; i++) {
+            this.tileEntities[i] = column.tileEntities[i] != null ? column.tileEntities[i].copy() : null;
+        }
+        this.hasHeightMaps = column.hasHeightMaps;
+        this.heightMaps = column.heightMaps != null ? column.heightMaps.copy() : null;
+        this.hasBiomeData = column.hasBiomeData;
+        this.biomeDataInts = column.biomeDataInts != null ? column.biomeDataInts.clone() : null;
+        this.biomeDataBytes = column.biomeDataBytes != null ? column.biomeDataBytes.clone() : null;
+    }
+
+    /**
+     * @return A deep copy of this column, which can be modified without affecting this one
+     */
+    public Column copy() {
+        return new Column(this);
+    }
+
+    /**
+     * Create a column with other sections, which shares everything else with this column.
+     *
+     * @param chunks Sections of the new column, the array isn't copied
+     * @return The new column
+     */
+    public Column withChunks(BaseChunk[] chunks) {
+        return new Column(this, chunks);
+    }
+
     public int getX() {
         return x;
     }
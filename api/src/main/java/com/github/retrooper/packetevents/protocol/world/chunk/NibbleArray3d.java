@@ -41,6 +41,10 @@ public class NibbleArray3d {
         this(in.readBytes(size));
     }
 
+    public NibbleArray3d copy() {
+        return new NibbleArray3d(this.data.clone());
+    }
+
     public byte[] getData() {
         return data;
     }
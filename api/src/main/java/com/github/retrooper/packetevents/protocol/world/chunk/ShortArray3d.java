@@ -32,6 +32,10 @@ public class ShortArray3d {
         this.data = array;
     }
 
+    public ShortArray3d copy() {
+        return new ShortArray3d(this.data.clone());
+    }
+
     public short[] getData() {
         return this.data;
     }
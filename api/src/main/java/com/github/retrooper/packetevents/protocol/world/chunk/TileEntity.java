@@ -46,6 +46,13 @@ public class TileEntity {
         this.data = data;
     }
 
+    /**
+     * @return A copy of this tile entity, with a copy of its data
+     */
+    public TileEntity copy() {
+        return new TileEntity(this.packedByte, this.y, this.type, this.data != null ? this.data.copy() : null);
+    }
+
     public int getX() {
         if (PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_18)) {
             return (this.packedByte & 0xF0) >> 4;
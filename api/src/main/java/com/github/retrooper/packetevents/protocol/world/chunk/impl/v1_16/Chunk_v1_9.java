@@ -21,6 +21,7 @@ package com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_16;
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -28,6 +29,7 @@ import com.github.retrooper.packetevents.protocol.world.chunk.NibbleArray3d;
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import org.jetbrains.annotations.Nullable;
 
 public class Chunk_v1_9 implements BaseChunk {
     private static final int AIR = 0;
@@ -37,6 +39,9 @@ public class Chunk_v1_9 implements BaseChunk {
 
     private NibbleArray3d blockLight;
     private NibbleArray3d skyLight;
+    // Bytes this section was read from, as long as it wasn't modified since
+    @Nullable
+    private byte[] rawData;
 
     public Chunk_v1_9(int blockCount, DataPalette dataPalette) {
         this.blockCount = blockCount;
@@ -47,6 +52,8 @@ public class Chunk_v1_9 implements BaseChunk {
     public Chunk_v1_9(NetStreamInput in, boolean hasBlockLight, boolean hasSkyLight) {
         boolean isFourteen = PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_14);
         boolean isSixteen = PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_16);
+        // Only possible when reading from a buffer, see Chunk_v1_18#read
+        int readerIndex = in instanceof ByteBufNetStreamInput ? ((ByteBufNetStreamInput) in).getReaderIndex() : -1;
 
         // 1.14+ includes block count in chunk data
         if (isFourteen) {
@@ -63,9 +70,26 @@ public class Chunk_v1_9 implements BaseChunk {
 
         this.blockLight = hasBlockLight ? new NibbleArray3d(in, 2048) : null;
         this.skyLight = hasSkyLight ? new NibbleArray3d(in, 2048) : null;
+        if (readerIndex != -1) {
+            this.rawData = ((ByteBufNetStreamInput) in).copyReadBytes(readerIndex);
+        }
+    }
+
+    @Override
+    public Chunk_v1_9 copy() {
+        Chunk_v1_9 chunk = new Chunk_v1_9(this.blockCount, this.dataPalette.copy());
+        chunk.blockLight = this.blockLight != null ? this.blockLight.copy() : null;
+        chunk.skyLight = this.skyLight != null ? this.skyLight.copy() : null;
+        // The raw bytes are never modified, so they can be shared
+        chunk.rawData = this.rawData;
+        return chunk;
     }
 
     public static void write(NetStreamOutput out, Chunk_v1_9 chunk) {
+        if (chunk.rawData != null) {
+            out.writeBytes(chunk.rawData);
+            return;
+        }
         boolean isFourteen = PacketEvents.getAPI().getServerManager().getVersion().isNewerThanOrEquals(ServerVersion.V_1_14);
 
         // 1.14+ includes block count in chunk data
@@ -89,6 +113,7 @@ public class Chunk_v1_9 implements BaseChunk {
     }
 
     public void set(int x, int y, int z, int state) {
+        this.rawData = null;
         int curr = this.dataPalette.set(x, y, z, state);
         // Pre-1.14 we don't get block counts
         if (blockCount == Integer.MAX_VALUE) return;
@@ -99,6 +124,20 @@ public class Chunk_v1_9 implements BaseChunk {
         }
     }
 
+    /**
+     * @return Whether this section is encoded again when written, instead of copying the bytes it was read from
+     */
+    public boolean isModified() {
+        return this.rawData == null;
+    }
+
+    /**
+     * Forget the bytes this section was read from, it is encoded again if it is written.
+     */
+    public void discardRawData() {
+        this.rawData = null;
+    }
+
     @Override
     public boolean isEmpty() {
         // Pre-1.14 we have to calculate the value
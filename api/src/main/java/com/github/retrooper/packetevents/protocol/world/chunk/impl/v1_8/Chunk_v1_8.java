@@ -39,6 +39,13 @@ public class Chunk_v1_8 implements BaseChunk {
         this.skylight = skylight;
     }
 
+    @Override
+    public Chunk_v1_8 copy() {
+        return new Chunk_v1_8(this.blocks.copy(),
+                this.blocklight != null ? this.blocklight.copy() : null,
+                this.skylight != null ? this.skylight.copy() : null);
+    }
+
     public ShortArray3d getBlocks() {
         return this.blocks;
     }
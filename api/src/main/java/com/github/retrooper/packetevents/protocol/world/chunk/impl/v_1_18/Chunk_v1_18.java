@@ -19,6 +19,7 @@
 package com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18;
 
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -26,6 +27,9 @@ import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalett
 import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
 import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.IntUnaryOperator;
 
 public class Chunk_v1_18 implements BaseChunk {
     private static final int AIR = 0;
@@ -35,6 +39,9 @@ public class Chunk_v1_18 implements BaseChunk {
     final DataPalette chunkData;
     private @NotNull
     final DataPalette biomeData;
+    // Bytes this section was read from, as long as it wasn't modified since
+    @Nullable
+    private byte[] rawData;
 
     public Chunk_v1_18() {
         this(0, DataPalette.createForChunk(), DataPalette.createForBiome());
@@ -47,14 +54,31 @@ public class Chunk_v1_18 implements BaseChunk {
     }
 
     public static Chunk_v1_18 read(NetStreamInput in)  {
+        // Keep the raw bytes if we can get them cheaply, so unmodified sections don't have to be encoded again
+        int readerIndex = in instanceof ByteBufNetStreamInput ? ((ByteBufNetStreamInput) in).getReaderIndex() : -1;
         int blockCount = in.readShort();
 
         DataPalette chunkPalette = DataPalette.read(in, PaletteType.CHUNK);
         DataPalette biomePalette = DataPalette.read(in, PaletteType.BIOME);
-        return new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
+        Chunk_v1_18 section = new Chunk_v1_18(blockCount, chunkPalette, biomePalette);
+        if (readerIndex != -1) {
+            section.rawData = ((ByteBufNetStreamInput) in).copyReadBytes(readerIndex);
+        }
+        return section;
+    }
+
+    @Override
+    public Chunk_v1_18 copy() {
+        Chunk_v1_18 section = new Chunk_v1_18(this.blockCount, this.chunkData.copy(), this.biomeData.copy());
+        section.rawData = this.rawData;
+        return section;
     }
 
     public static void write(NetStreamOutput out, Chunk_v1_18 section)  {
+        if (section.rawData != null) {
+            out.writeBytes(section.rawData);
+            return;
+        }
         out.writeShort(section.blockCount);
         DataPalette.write(out, section.chunkData);
         DataPalette.write(out, section.biomeData);
@@ -67,6 +91,7 @@ public class Chunk_v1_18 implements BaseChunk {
 
     @Override
     public void set(int x, int y, int z, int state) {
+        this.rawData = null;
         int curr = this.chunkData.set(x, y, z, state);
         if (state != AIR && curr == AIR) {
             this.blockCount++;
@@ -75,6 +100,35 @@ public class Chunk_v1_18 implements BaseChunk {
         }
     }
 
+    /**
+     * Replace every block state of this section, for example to hide ores, see {@link DataPalette#replaceStates(IntUnaryOperator)}.
+     * Unlike replacing the states through {@link #getChunkData()}, this keeps the block count up to date
+     * when states are replaced with air or air is replaced with other states.
+     *
+     * @param operator Function returning the new state for a state, return the state itself to keep it
+     */
+    public void replaceStates(IntUnaryOperator operator) {
+        this.rawData = null;
+        boolean[] airReplaced = new boolean[1];
+        this.chunkData.replaceStates(state -> {
+            int replaced = operator.applyAsInt(state);
+            if ((state == AIR) != (replaced == AIR)) {
+                airReplaced[0] = true;
+            }
+            return replaced;
+        });
+        // Counting the blocks is only needed if the operator touched air
+        if (airReplaced[0]) {
+            int blockCount = 0;
+            for (int state : this.chunkData.getAll()) {
+                if (state != AIR) {
+                    blockCount++;
+                }
+            }
+            this.blockCount = blockCount;
+        }
+    }
+
     @Override
     public boolean isEmpty() {
         return this.blockCount == 0;
@@ -85,14 +139,47 @@ public class Chunk_v1_18 implements BaseChunk {
     }
 
     public void setBlockCount(int blockCount) {
+        this.rawData = null;
         this.blockCount = blockCount;
     }
 
+    /**
+     * Whether this section has to be encoded again when it is written,
+     * because it was modified or wasn't read from a packet buffer.
+     * Sections which weren't modified are written by copying the bytes they were read from.
+     *
+     * @return True if this section will be encoded again
+     */
+    public boolean isModified() {
+        return this.rawData == null;
+    }
+
+    /**
+     * Forget the bytes this section was read from, for sections which are kept around but never written as they are.
+     * The section is encoded again if it is written.
+     */
+    public void discardRawData() {
+        this.rawData = null;
+    }
+
+    /**
+     * As the palette can be modified through the returned instance, this marks the section as modified.
+     * Use {@link #getBlockId(int, int, int)} to only read blocks.
+     *
+     * @return Palette of the blocks
+     */
     public @NotNull DataPalette getChunkData() {
+        this.rawData = null;
         return chunkData;
     }
 
+    /**
+     * As the palette can be modified through the returned instance, this marks the section as modified.
+     *
+     * @return Palette of the biomes
+     */
     public @NotNull DataPalette getBiomeData() {
+        this.rawData = null;
         return biomeData;
     }
 }
\ No newline at end of file
@@ -26,6 +26,9 @@ import com.github.retrooper.packetevents.protocol.world.chunk.storage.LegacyFlex
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
 public class DataPalette {
 
     // this is the amount of bits required to store the biggest state id number
@@ -54,6 +57,13 @@ public class DataPalette {
         this.paletteType = paletteType;
     }
 
+    /**
+     * @return A deep copy of this palette, which can be modified without affecting this one
+     */
+    public DataPalette copy() {
+        return new DataPalette(this.palette.copy(), this.storage != null ? this.storage.copy() : null, this.paletteType);
+    }
+
     public static DataPalette read(NetStreamInput in, PaletteType paletteType) {
         int bitsPerEntry = in.readByte();
         Palette palette = readPalette(paletteType, bitsPerEntry, in);
@@ -137,6 +147,105 @@ public class DataPalette {
         }
     }
 
+    /**
+     * Get the states of the whole palette at once, which is a lot faster than getting them one by one.
+     * The states are ordered by their index, which is {@code y << 8 | z << 4 | x} for chunks.
+     *
+     * @param states Array to store the states in, at least {@link PaletteType#getStorageSize()} long
+     */
+    public void getAll(int[] states) {
+        int size = this.paletteType.getStorageSize();
+        if (states.length < size) {
+            throw new IllegalArgumentException("Expected at least " + size + " states but got " + states.length);
+        }
+        if (this.storage == null) {
+            Arrays.fill(states, 0, size, this.palette.idToState(0));
+            return;
+        }
+        this.storage.unpackAll(states);
+        if (!(this.palette instanceof GlobalPalette)) {
+            for (int i = 0; i < size; i++) {
+                states[i] = this.palette.idToState(states[i]);
+            }
+        }
+    }
+
+    /**
+     * @return The states of the whole palette, see {@link #getAll(int[])}
+     */
+    public int[] getAll() {
+        int[] states = new int[this.paletteType.getStorageSize()];
+        getAll(states);
+        return states;
+    }
+
+    /**
+     * Replace the states of the whole palette at once, for example to obfuscate every ore of a section.
+     * The palette is rebuilt from scratch, so states which are no longer present are dropped from it.
+     *
+     * @param states New states, ordered like the ones of {@link #getAll(int[])}
+     */
+    public void setAll(int[] states) {
+        int size = this.paletteType.getStorageSize();
+        if (states.length < size) {
+            throw new IllegalArgumentException("Expected at least " + size + " states but got " + states.length);
+        }
+        int bitsPerEntry = this.paletteType.getMinBitsPerEntry();
+        Palette palette = createPalette(bitsPerEntry, this.paletteType);
+        int[] ids = new int[size];
+        for (int i = 0; i < size; i++) {
+            int id = palette.stateToId(states[i]);
+            if (id == -1) {
+                // The palette is full, start over with a bigger one
+                bitsPerEntry = sanitizeBitsPerEntry(bitsPerEntry + 1);
+                palette = createPalette(bitsPerEntry, this.paletteType);
+                i = -1;
+                continue;
+            }
+            ids[i] = id;
+        }
+        BaseStorage storage = new BitStorage(bitsPerEntry, size);
+        storage.packAll(ids);
+        this.palette = palette;
+        this.storage = storage;
+    }
+
+    /**
+     * Replace every state of the palette with the one returned by the operator, for example to hide ores.
+     * Unless the global palette is used, only the palette entries are replaced, without touching the storage.
+     * The operator has to return the same state for the same input, as it may be called once per entry or
+     * once per distinct state.
+     * If the global palette is used and a new state doesn't fit the storage, the storage is replaced by a bigger one.
+     *
+     * @param operator Function returning the new state for a state, return the state itself to keep it
+     * @throws IllegalArgumentException If the operator returns a negative state, in which case nothing is replaced
+     */
+    public void replaceStates(IntUnaryOperator operator) {
+        if (this.palette.replaceStates(operator)) {
+            return;
+        }
+        // The global palette has no entries, the storage contains the states themselves
+        int[] states = new int[this.paletteType.getStorageSize()];
+        this.storage.unpackAll(states);
+        int maxState = 0;
+        for (int i = 0; i < states.length; i++) {
+            int state = operator.applyAsInt(states[i]);
+            if (state < 0) {
+                throw new IllegalArgumentException("Illegal state: " + state);
+            }
+            states[i] = state;
+            maxState = Math.max(maxState, state);
+        }
+        // Only write once we know every state fits, so a failure can't leave the storage half replaced
+        int bitsPerEntry = 32 - Integer.numberOfLeadingZeros(maxState);
+        if (bitsPerEntry > this.storage.getBitsPerEntry()) {
+            this.storage = this.storage instanceof LegacyFlexibleStorage
+                    ? new LegacyFlexibleStorage(bitsPerEntry, states.length)
+                    : new BitStorage(bitsPerEntry, states.length);
+        }
+        this.storage.packAll(states);
+    }
+
     private static Palette readPalette(PaletteType paletteType, int bitsPerEntry, NetStreamInput in) {
         if (bitsPerEntry > paletteType.getMaxBitsPerEntry()) {
             return new GlobalPalette();
@@ -170,9 +279,20 @@ public class DataPalette {
         if (oldPalette instanceof SingletonPalette) {
             this.palette.stateToId(oldPalette.idToState(0));
         } else {
-            for (int i = 0; i < paletteType.getStorageSize(); i++) {
-                this.storage.set(i, this.palette.stateToId(oldPalette.idToState(oldData.get(i))));
+            int[] ids = new int[paletteType.getStorageSize()];
+            oldData.unpackAll(ids);
+            // Every old id is looked up once, in the order they appear, so the new palette has the same order
+            int[] translation = new int[1 << oldData.getBitsPerEntry()];
+            Arrays.fill(translation, -1);
+            for (int i = 0; i < ids.length; i++) {
+                int oldId = ids[i];
+                int id = translation[oldId];
+                if (id == -1) {
+                    id = translation[oldId] = this.palette.stateToId(oldPalette.idToState(oldId));
+                }
+                ids[i] = id;
             }
+            this.storage.packAll(ids);
         }
     }
 
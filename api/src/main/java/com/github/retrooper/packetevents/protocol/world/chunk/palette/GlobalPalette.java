@@ -43,4 +43,10 @@ public class GlobalPalette implements Palette {
     public int idToState(int id) {
         return id;
     }
+
+    @Override
+    public GlobalPalette copy() {
+        // Doesn't have any state
+        return this;
+    }
 }
@@ -26,6 +26,8 @@ package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 
+import java.util.function.IntUnaryOperator;
+
 /**
  * A palette backed by a List.
  */
@@ -52,6 +54,12 @@ public class ListPalette implements Palette {
         this.nextId = paletteLength;
     }
 
+    private ListPalette(ListPalette palette) {
+        this.maxId = palette.maxId;
+        this.data = palette.data.clone();
+        this.nextId = palette.nextId;
+    }
+
     @Override
     public int size() {
         return this.nextId;
@@ -82,4 +90,17 @@ public class ListPalette implements Palette {
             return 0;
         }
     }
+
+    @Override
+    public ListPalette copy() {
+        return new ListPalette(this);
+    }
+
+    @Override
+    public boolean replaceStates(IntUnaryOperator operator) {
+        for (int i = 0; i < this.nextId; i++) {
+            this.data[i] = operator.applyAsInt(this.data[i]);
+        }
+        return true;
+    }
 }
\ No newline at end of file
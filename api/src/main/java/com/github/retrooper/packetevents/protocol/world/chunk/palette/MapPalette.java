@@ -27,6 +27,7 @@ package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 
 import java.util.HashMap;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A palette backed by a map.
@@ -57,6 +58,13 @@ public class MapPalette implements Palette {
         this.nextId = paletteLength;
     }
 
+    private MapPalette(MapPalette palette) {
+        this.maxId = palette.maxId;
+        this.idToState = palette.idToState.clone();
+        this.stateToId.putAll(palette.stateToId);
+        this.nextId = palette.nextId;
+    }
+
     @Override
     public int size() {
         return this.nextId;
@@ -86,4 +94,21 @@ public class MapPalette implements Palette {
             return 0;
         }
     }
+
+    @Override
+    public MapPalette copy() {
+        return new MapPalette(this);
+    }
+
+    @Override
+    public boolean replaceStates(IntUnaryOperator operator) {
+        this.stateToId.clear();
+        for (int i = 0; i < this.nextId; i++) {
+            int state = operator.applyAsInt(this.idToState[i]);
+            this.idToState[i] = state;
+            // If states were merged, the lowest id is used for new entries, like when reading a palette
+            this.stateToId.putIfAbsent(state, i);
+        }
+        return true;
+    }
 }
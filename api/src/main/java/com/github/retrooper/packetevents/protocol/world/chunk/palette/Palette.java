@@ -24,6 +24,8 @@
 
 package com.github.retrooper.packetevents.protocol.world.chunk.palette;
 
+import java.util.function.IntUnaryOperator;
+
 /**
  * A palette for mapping block states to storage IDs.
  */
@@ -52,4 +54,31 @@ public interface Palette {
      * @return The resulting block state.
      */
     int idToState(int id);
+
+    /**
+     * Creates a copy of this palette, which can be modified independently.
+     * By default, the states are copied into a {@link MapPalette} which only has room for them,
+     * so adding another state makes the {@link DataPalette} resize.
+     *
+     * @return The copied palette.
+     */
+    default Palette copy() {
+        int size = size();
+        MapPalette copy = new MapPalette(Math.max(1, 32 - Integer.numberOfLeadingZeros(Math.max(size - 1, 0))));
+        for (int id = 0; id < size; id++) {
+            copy.stateToId(idToState(id));
+        }
+        return copy;
+    }
+
+    /**
+     * Replaces every block state of this palette with the one returned by the operator,
+     * without changing any storage IDs. Several IDs may map to the same state afterwards.
+     *
+     * @param operator Function returning the new state for a state.
+     * @return Whether the states were replaced, false if the palette has no entries of its own.
+     */
+    default boolean replaceStates(IntUnaryOperator operator) {
+        return false;
+    }
 }
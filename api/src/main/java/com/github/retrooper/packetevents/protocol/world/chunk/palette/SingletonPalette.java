@@ -22,18 +22,23 @@ import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 
 import java.io.IOException;
+import java.util.function.IntUnaryOperator;
 
 /**
  * A palette containing one state.
  * Credit to MCProtocolLib
  */
 public class SingletonPalette implements Palette {
-    private final int state;
+    private int state;
 
     public SingletonPalette(NetStreamInput in) {
         this.state = in.readVarInt();
     }
 
+    private SingletonPalette(int state) {
+        this.state = state;
+    }
+
     @Override
     public int size() {
         return 1;
@@ -54,4 +59,15 @@ public class SingletonPalette implements Palette {
         }
         return 0;
     }
+
+    @Override
+    public SingletonPalette copy() {
+        return new SingletonPalette(this.state);
+    }
+
+    @Override
+    public boolean replaceStates(IntUnaryOperator operator) {
+        this.state = operator.applyAsInt(this.state);
+        return true;
+    }
 }
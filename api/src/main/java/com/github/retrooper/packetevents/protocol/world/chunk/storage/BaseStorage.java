@@ -28,4 +28,58 @@ public abstract class BaseStorage {
     public abstract int get(int index);
 
     public abstract void set(int index, int value);
+
+    /**
+     * By default, the entries are copied into a {@link BitStorage} with the same bits per entry.
+     *
+     * @return A copy of this storage, which doesn't share its data with it
+     */
+    public BaseStorage copy() {
+        int[] values = new int[getSize()];
+        unpackAll(values);
+        BaseStorage copy = new BitStorage(getBitsPerEntry(), getSize());
+        copy.packAll(values);
+        return copy;
+    }
+
+    /**
+     * Read every entry of this storage.
+     *
+     * @param out Array to store the entries in, at least as long as the storage
+     */
+    public void unpackAll(int[] out) {
+        checkLength(out);
+        for (int i = 0; i < getSize(); i++) {
+            out[i] = get(i);
+        }
+    }
+
+    /**
+     * Replace every entry of this storage.
+     *
+     * @param values New entries, at least as many as the storage holds
+     */
+    public void packAll(int[] values) {
+        checkLength(values);
+        for (int i = 0; i < getSize(); i++) {
+            set(i, values[i]);
+        }
+    }
+
+    /**
+     * Replace every entry with the value at its index in the translation table.
+     *
+     * @param translation Table with a new value for every entry which is present in the storage
+     */
+    public void remap(int[] translation) {
+        for (int i = 0; i < getSize(); i++) {
+            set(i, translation[get(i)]);
+        }
+    }
+
+    void checkLength(int[] values) {
+        if (values.length < getSize()) {
+            throw new IllegalArgumentException("Expected at least " + getSize() + " entries but got " + values.length);
+        }
+    }
 }
@@ -105,6 +105,11 @@ public class BitStorage extends BaseStorage {
         return size;
     }
 
+    @Override
+    public BitStorage copy() {
+        return new BitStorage(this.bitsPerEntry, this.size, this.data.clone());
+    }
+
     @Override
     public int get(int index) {
         if (index < 0 || index > this.size - 1L) {
@@ -130,6 +135,64 @@ public class BitStorage extends BaseStorage {
         this.data[cellIndex] = this.data[cellIndex] & ~(this.maxValue << bitIndex) | ((long) value & this.maxValue) << bitIndex;
     }
 
+    // The bulk operations below walk the longs in order, as entries never span two longs,
+    // each one holds exactly valuesPerLong entries, except for the last one
+
+    @Override
+    public void unpackAll(int[] out) {
+        checkLength(out);
+        int bitsPerEntry = this.bitsPerEntry;
+        long maxValue = this.maxValue;
+        int index = 0;
+        for (long word : this.data) {
+            int end = Math.min(index + this.valuesPerLong, this.size);
+            for (; index < end; index++) {
+                out[index] = (int) (word & maxValue);
+                word >>>= bitsPerEntry;
+            }
+        }
+    }
+
+    @Override
+    public void packAll(int[] values) {
+        checkLength(values);
+        int bitsPerEntry = this.bitsPerEntry;
+        long maxValue = this.maxValue;
+        int index = 0;
+        for (int cell = 0; cell < this.data.length; cell++) {
+            int end = Math.min(index + this.valuesPerLong, this.size);
+            long word = 0L;
+            for (int shift = 0; index < end; index++, shift += bitsPerEntry) {
+                long value = values[index];
+                if ((value & ~maxValue) != 0L) {
+                    throw new IllegalStateException("Illegal value: " + value + " < 0 || " + value + " > " + maxValue);
+                }
+                word |= value << shift;
+            }
+            this.data[cell] = word;
+        }
+    }
+
+    @Override
+    public void remap(int[] translation) {
+        int bitsPerEntry = this.bitsPerEntry;
+        long maxValue = this.maxValue;
+        int index = 0;
+        for (int cell = 0; cell < this.data.length; cell++) {
+            int end = Math.min(index + this.valuesPerLong, this.size);
+            long word = this.data[cell];
+            long remapped = 0L;
+            for (int shift = 0; index < end; index++, shift += bitsPerEntry) {
+                long value = translation[(int) (word >>> shift & maxValue)];
+                if ((value & ~maxValue) != 0L) {
+                    throw new IllegalStateException("Illegal value: " + value + " < 0 || " + value + " > " + maxValue);
+                }
+                remapped |= value << shift;
+            }
+            this.data[cell] = remapped;
+        }
+    }
+
     private int cellIndex(int index) {
         return (int) (index * this.divideMultiply + this.divideAdd >> 32 >> this.divideShift);
     }
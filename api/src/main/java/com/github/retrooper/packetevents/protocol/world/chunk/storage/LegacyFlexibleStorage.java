@@ -85,6 +85,12 @@ public class LegacyFlexibleStorage extends BaseStorage {
         }
     }
 
+    @Override
+    public LegacyFlexibleStorage copy() {
+        // The data is copied by the constructor
+        return new LegacyFlexibleStorage(this.bitsPerEntry, this.data);
+    }
+
     @Override
     public long[] getData() {
         return data;
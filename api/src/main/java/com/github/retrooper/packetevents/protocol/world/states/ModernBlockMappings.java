@@ -0,0 +1,191 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.protocol.world.states;
+
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reader for the binary block state mappings, which the compileBlockMappings gradle task
+ * generates from modern_block_mappings.txt at build time.
+ * <p>
+ * All integers are big endian, var ints are encoded like in the minecraft protocol.
+ * <pre>
+ * int     magic ("PEMB")
+ * byte    format version
+ * int     string count
+ * int     restart interval
+ * int[]   offset of every restart string, relative to the string data
+ * int     string data length
+ * byte[]  string data, every string is stored as (var int shared prefix length, var int suffix length, suffix)
+ *         where the prefix is shared with the previous string; restart strings don't share a prefix
+ * int     version count
+ *         per version: modified UTF-8 release name, int offset relative to the version data
+ * byte[]  version data, per version:
+ *         var int state count
+ *         var int run count, per run: zigzag var int string id delta to the end of the last run, var int run length
+ *         var int default state count, per default state: var int global id delta to the last default state
+ * </pre>
+ * Versions are only decoded when asked for, and each string is only decoded once,
+ * so all versions share the same string instances.
+ */
+final class ModernBlockMappings {
+    private static final int MAGIC = 0x50454D42;
+    private static final int FORMAT_VERSION = 1;
+
+    private final ByteBuffer buffer;
+    private final int restartInterval;
+    private final int[] restartOffsets;
+    private final int stringDataStart;
+    private final int versionDataStart;
+    private final Map<String, Integer> versionOffsets = new HashMap<>();
+    private final String[] strings;
+
+    private ModernBlockMappings(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt() != MAGIC || buffer.get() != FORMAT_VERSION) {
+            throw new IllegalStateException("Unsupported block mappings format!");
+        }
+        this.strings = new String[buffer.getInt()];
+        this.restartInterval = buffer.getInt();
+        this.restartOffsets = new int[(strings.length + restartInterval - 1) / restartInterval];
+        for (int i = 0; i < restartOffsets.length; i++) {
+            restartOffsets[i] = buffer.getInt();
+        }
+        int stringDataLength = buffer.getInt();
+        this.stringDataStart = buffer.position();
+        buffer.position(stringDataStart + stringDataLength);
+        int versionCount = buffer.getInt();
+        for (int i = 0; i < versionCount; i++) {
+            byte[] name = new byte[buffer.getShort() & 0xFFFF];
+            buffer.get(name);
+            versionOffsets.put(new String(name, StandardCharsets.UTF_8), buffer.getInt());
+        }
+        this.versionDataStart = buffer.position();
+    }
+
+    static ModernBlockMappings read(InputStream inputStream) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(inputStream.available());
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = inputStream.read(chunk)) != -1) {
+            bytes.write(chunk, 0, read);
+        }
+        return new ModernBlockMappings(ByteBuffer.wrap(bytes.toByteArray()));
+    }
+
+    boolean hasVersion(String releaseName) {
+        return versionOffsets.containsKey(releaseName);
+    }
+
+    /**
+     * Decode the mappings of a single version.
+     *
+     * @param releaseName Release name of the version, as in the original text file
+     * @return Mappings of the version, or null if the file does not contain it
+     */
+    @Nullable
+    synchronized Version readVersion(String releaseName) {
+        Integer offset = versionOffsets.get(releaseName);
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer buffer = this.buffer.duplicate();
+        buffer.position(versionDataStart + offset);
+
+        String[] states = new String[readVarInt(buffer)];
+        int runCount = readVarInt(buffer);
+        int globalId = 0;
+        int stringId = 0;
+        for (int run = 0; run < runCount; run++) {
+            int delta = readVarInt(buffer);
+            stringId += (delta >>> 1) ^ -(delta & 1);
+            int length = readVarInt(buffer);
+            for (int i = 0; i < length; i++) {
+                states[globalId++] = getString(stringId++);
+            }
+        }
+
+        BitSet defaults = new BitSet(states.length);
+        int defaultCount = readVarInt(buffer);
+        int defaultId = 0;
+        for (int i = 0; i < defaultCount; i++) {
+            defaultId += readVarInt(buffer);
+            defaults.set(defaultId);
+        }
+        return new Version(states, defaults);
+    }
+
+    private String getString(int stringId) {
+        String string = strings[stringId];
+        if (string == null) {
+            decodeRestartBlock(stringId / restartInterval);
+            string = strings[stringId];
+        }
+        return string;
+    }
+
+    // Front coding only allows us to decode whole blocks, starting at their restart string
+    private void decodeRestartBlock(int block) {
+        ByteBuffer buffer = this.buffer.duplicate();
+        buffer.position(stringDataStart + restartOffsets[block]);
+        byte[] previous = new byte[0];
+        int start = block * restartInterval;
+        int end = Math.min(start + restartInterval, strings.length);
+        for (int i = start; i < end; i++) {
+            int shared = readVarInt(buffer);
+            byte[] bytes = new byte[shared + readVarInt(buffer)];
+            System.arraycopy(previous, 0, bytes, 0, shared);
+            buffer.get(bytes, shared, bytes.length - shared);
+            strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            previous = bytes;
+        }
+    }
+
+    private static int readVarInt(ByteBuffer buffer) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    static final class Version {
+        // Indexed by global id
+        final String[] states;
+        final BitSet defaults;
+
+        private Version(String[] states, BitSet defaults) {
+            this.states = states;
+            this.defaults = defaults;
+        }
+    }
+}
@@ -8,12 +8,15 @@ import com.github.retrooper.packetevents.protocol.world.states.type.StateType;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateTypes;
 import com.github.retrooper.packetevents.protocol.world.states.type.StateValue;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * This class is designed to take advantage of modern minecraft versions
@@ -27,56 +30,61 @@ import java.util.*;
  * Mappings from modern versions are from ViaVersion, who have a similar (but a bit slower) system.
  */
 public class WrappedBlockState {
-    private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0);
-    private static final Map<Byte, Map<String, WrappedBlockState>> BY_STRING = new HashMap<>();
-    private static final Map<Byte, Map<Integer, WrappedBlockState>> BY_ID = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, String>> INTO_STRING = new HashMap<>();
-    private static final Map<Byte, Map<WrappedBlockState, Integer>> INTO_ID = new HashMap<>();
-    private static final Map<Byte, Map<StateType, WrappedBlockState>> DEFAULT_STATES = new HashMap<>();
+    private static final WrappedBlockState AIR = new WrappedBlockState(StateTypes.AIR, new EnumMap<>(StateValue.class), 0, (byte) 0).markImmutable();
+    // Indexed by ClientVersion#ordinal, this is looked up for every single block
+    private static final byte[] MAPPINGS_INDICES = new byte[ClientVersion.values().length];
+    // Indexed by mappings index, each entry is only loaded once a version using it is looked up
+    private static final AtomicReferenceArray<Mappings> MAPPINGS = new AtomicReferenceArray<>(computeMappingsIndex(ClientVersion.getLatest()) + 1);
+    private static ModernBlockMappings modernMappings;
 
     private static final Map<String, String> STRING_UPDATER = new HashMap<>();
 
     // Try to reduce memory footprint by re-using hashmaps when they are equal
     // We do this by setting the key and value equal to one another
     // this.data = cache.computeIfAbsent(this.data, (key) -> key);
+    // The cached maps are unmodifiable, as they are shared by all states with the same properties
     // This will get an equal value if present, otherwise it will add the key to the cache
-    // Once this is done, we remove this cache to save memory
+    // As versions are loaded on demand, this cache is kept for the lifetime of the class
     // A HashMap is used instead of another data type because a hashmap is o(1)
     //
     // 4845 total combinations, last updated with 1.18.2 (which uses 1.17 block mappings)
     // This brings total memory usage from 62 MB to 34 MB, a 28 MB reduction
     // Using a HashMap reduces memory usage to less than a megabyte, I can't get precise numbers because hard to see on a heapdump
-    private static Map<Map<StateValue, Object>, Map<StateValue, Object>> cache = new HashMap<>(4845, 70);
+    private static final Map<Map<StateValue, Object>, Map<StateValue, Object>> cache = new ConcurrentHashMap<>(4845, 70);
 
     static {
         STRING_UPDATER.put("grass_path", "dirt_path"); // 1.16 -> 1.17
 
-        loadLegacy();
         for (ClientVersion version : ClientVersion.values()) {
-            if (version.isNewerThanOrEquals(ClientVersion.V_1_13) && version.isRelease()) {
-                loadModern(version);
-            }
+            MAPPINGS_INDICES[version.ordinal()] = computeMappingsIndex(version);
         }
-
-        cache = null; // Everything is loaded, there is no need to cache anymore
     }
 
     int globalID;
     StateType type;
-    Map<StateValue, Object> data = new HashMap<>(0);
+    // Only used by states which aren't backed by the mappings, the others read their properties from their definition
+    Map<StateValue, Object> data;
     boolean hasClonedData = false;
     byte mappingsIndex;
+    // States stored in the mappings are shared between all callers, and thus must never be modified
+    private boolean immutable;
+    // Set if this state is backed by the mappings, used to move to other states in O(1) when modifying properties
+    private StateDefinition definition;
+    private int packedIndex;
+    // The states with a single different property value, indexed by [property ordinal][value ordinal]
+    private WrappedBlockState[][] neighbours;
 
     public WrappedBlockState(StateType type, String[] data, int globalID, byte mappingsIndex) {
         this.type = type;
         this.globalID = globalID;
 
+        Map<StateValue, Object> properties = new HashMap<>(data == null ? 0 : data.length);
         if (data != null) {
             for (String s : data) {
                 try {
                     String[] split = s.split("=");
                     StateValue value = StateValue.byName(split[0]);
-                    this.data.put(value, value.getParser().apply(split[1].toUpperCase(Locale.ROOT)));
+                    properties.put(value, value.getParser().apply(split[1].toUpperCase(Locale.ROOT)));
                 } catch (Exception e) {
                     e.printStackTrace();
                     PacketEvents.getAPI().getLogManager().warn("Failed to parse block state: " + s);
@@ -85,7 +93,7 @@ public class WrappedBlockState {
         }
 
 
-        this.data = cache.computeIfAbsent(this.data, (key) -> key);
+        this.data = cache.computeIfAbsent(properties, Collections::unmodifiableMap);
         this.mappingsIndex = mappingsIndex;
     }
 
@@ -111,11 +119,29 @@ public class WrappedBlockState {
         return getByGlobalId(version, globalID, true);
     }
 
+    /**
+     * Get the block state with this global id.
+     * <p>
+     * If you only read properties of the state, pass false for clone.
+     * You will then receive the immutable instance shared by everyone, and nothing will be allocated.
+     *
+     * @param version  Version the global id belongs to
+     * @param globalID Global id of the block state
+     * @param clone    Whether to return a modifiable copy
+     * @return The block state, or air if the global id is unknown
+     */
     @NotNull
     public static WrappedBlockState getByGlobalId(ClientVersion version, int globalID, boolean clone) {
-        if (globalID == 0) return AIR; // Hardcode for performance
-        byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_ID.get(mappingsIndex).getOrDefault(globalID, AIR);
+        WrappedBlockState state;
+        if (globalID == 0) {
+            state = AIR; // Hardcode for performance
+        } else {
+            WrappedBlockState[] byId = getMappings(getMappingsIndex(version)).byId;
+            state = globalID > 0 && globalID < byId.length ? byId[globalID] : null;
+            if (state == null) {
+                state = AIR;
+            }
+        }
         return clone ? state.clone() : state;
     }
 
@@ -132,7 +158,7 @@ public class WrappedBlockState {
     @NotNull
     public static WrappedBlockState getByString(ClientVersion version, String string, boolean clone) {
         byte mappingsIndex = getMappingsIndex(version);
-        final WrappedBlockState state = BY_STRING.get(mappingsIndex).getOrDefault(string.replace("minecraft:", ""), AIR);
+        final WrappedBlockState state = getMappings(mappingsIndex).byString.getOrDefault(string.replace("minecraft:", ""), AIR);
         return clone ? state.clone() : state;
     }
 
@@ -148,17 +174,25 @@ public class WrappedBlockState {
 
     @NotNull
     public static WrappedBlockState getDefaultState(ClientVersion version, StateType type, boolean clone) {
-        if (type == StateTypes.AIR) return AIR;
-        byte mappingsIndex = getMappingsIndex(version);
-        WrappedBlockState state = DEFAULT_STATES.get(mappingsIndex).get(type);
-        if (state == null) {
-            PacketEvents.getAPI().getLogger().config("Default state for " + type.getName() + " is null. Returning AIR");
-            return AIR;
+        WrappedBlockState state;
+        if (type == StateTypes.AIR) {
+            state = AIR;
+        } else {
+            byte mappingsIndex = getMappingsIndex(version);
+            state = getMappings(mappingsIndex).defaultStates.get(type);
+            if (state == null) {
+                PacketEvents.getAPI().getLogger().config("Default state for " + type.getName() + " is null. Returning AIR");
+                state = AIR;
+            }
         }
         return clone ? state.clone() : state;
     }
 
     private static byte getMappingsIndex(ClientVersion version) {
+        return MAPPINGS_INDICES[version.ordinal()];
+    }
+
+    private static byte computeMappingsIndex(ClientVersion version) {
         if (version.isOlderThan(ClientVersion.V_1_13)) {
             return 0;
         } else if (version.isOlderThanOrEquals(ClientVersion.V_1_13_1)) {
@@ -190,8 +224,27 @@ public class WrappedBlockState {
         return 13;
     }
 
-    private static void loadLegacy() {
+    /**
+     * Get the mappings for this mappings index, loading them if nobody has asked for them yet.
+     * Loading is guarded by a lock, but once published the mappings are read without any locking.
+     */
+    private static Mappings getMappings(byte mappingsIndex) {
+        Mappings mappings = MAPPINGS.get(mappingsIndex);
+        if (mappings == null) {
+            synchronized (MAPPINGS) {
+                mappings = MAPPINGS.get(mappingsIndex);
+                if (mappings == null) {
+                    mappings = mappingsIndex == 0 ? loadLegacy() : loadModern(mappingsIndex);
+                    MAPPINGS.set(mappingsIndex, mappings);
+                }
+            }
+        }
+        return mappings;
+    }
+
+    private static Mappings loadLegacy() {
         String line;
+        List<WrappedBlockState> loadedStates = new ArrayList<>();
         Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
         Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
         Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
@@ -226,7 +279,8 @@ public class WrappedBlockState {
 
                 WrappedBlockState state = new WrappedBlockState(type, dataStrings, combinedID, (byte) 0);
 
-                stateByIdMap.put(combinedID, state);
+                stateByIdMap.put(combinedID, state.markImmutable());
+                loadedStates.add(state);
                 stateToStringMap.put(state, fullString);
                 stateToIdMap.put(state, combinedID);
 
@@ -242,99 +296,96 @@ public class WrappedBlockState {
             PacketEvents.getAPI().getLogManager().debug("Palette reading failed! Unsupported version?");
             e.printStackTrace();
         }
-        BY_ID.put((byte) 0, stateByIdMap);
-        INTO_ID.put((byte) 0, stateToIdMap);
-        BY_STRING.put((byte) 0, stateByStringMap);
-        INTO_STRING.put((byte) 0, stateToStringMap);
-        DEFAULT_STATES.put((byte) 0, stateTypeToBlockStateMap);
+        int maxId = 0;
+        for (int combinedID : stateByIdMap.keySet()) {
+            maxId = Math.max(maxId, combinedID);
+        }
+        WrappedBlockState[] stateById = new WrappedBlockState[maxId + 1];
+        for (Map.Entry<Integer, WrappedBlockState> entry : stateByIdMap.entrySet()) {
+            stateById[entry.getKey()] = entry.getValue();
+        }
+        StateDefinition.link(loadedStates);
+        return new Mappings(stateById, stateToIdMap, stateByStringMap, stateToStringMap, stateTypeToBlockStateMap);
     }
 
-    private static void loadModern(ClientVersion version) {
-        // We call this for every 1.13+ version, which is inefficient to parse the JSON if it didn't change
-        byte mappingsIndex = getMappingsIndex(version);
-        if (BY_ID.containsKey(mappingsIndex)) {
-            return;
+    // Must be called while holding the MAPPINGS lock
+    private static Mappings loadModern(byte mappingsIndex) {
+        if (modernMappings == null) {
+            modernMappings = readModernMappings();
         }
 
-        InputStream mappings = PacketEvents.getAPI().getSettings().getResourceProvider().apply("assets/mappings/block/modern_block_mappings.txt");
-        BufferedReader reader = new BufferedReader(new InputStreamReader(mappings));
-
-        Map<Integer, WrappedBlockState> stateByIdMap = new HashMap<>();
         Map<WrappedBlockState, Integer> stateToIdMap = new HashMap<>();
         Map<String, WrappedBlockState> stateByStringMap = new HashMap<>();
         Map<WrappedBlockState, String> stateToStringMap = new HashMap<>();
         Map<StateType, WrappedBlockState> stateTypeToBlockStateMap = new HashMap<>();
 
-        String versionString = version.getReleaseName();
-        boolean found = false;
-        int id = 0;
-
-        String fullBlockString;
-        try {
-            while ((fullBlockString = reader.readLine()) != null) {
-                if (!found) {
-                    if (fullBlockString.equals(versionString)) {
-                        found = true;
-                    }
-                    continue;
-                } else {
-                    if (fullBlockString.charAt(1) == '.') { // 1.13, 1.16, 2.0
-                        break;
-                    }
+        // The mappings are stored under the name of the oldest version using them
+        ModernBlockMappings.Version mappings = null;
+        for (ClientVersion version : ClientVersion.values()) {
+            if (version.isRelease() && version.isNewerThanOrEquals(ClientVersion.V_1_13)
+                    && getMappingsIndex(version) == mappingsIndex) {
+                mappings = modernMappings.readVersion(version.getReleaseName());
+                break;
+            }
+        }
+        String[] states = mappings == null ? new String[0] : mappings.states;
+        WrappedBlockState[] stateById = new WrappedBlockState[states.length];
+        for (int id = 0; id < states.length; id++) {
+            String fullBlockString = states[id];
+            int index = fullBlockString.indexOf("[");
+
+            String blockString = fullBlockString.substring(0, index == -1 ? fullBlockString.length() : index);
+            StateType type = StateTypes.getByName(blockString);
+
+            if (type == null) {
+                // Let's update the state type to a modern version
+                for (Map.Entry<String, String> stringEntry : STRING_UPDATER.entrySet()) {
+                    blockString = blockString.replace(stringEntry.getKey(), stringEntry.getValue());
                 }
 
-                boolean isDefault = fullBlockString.startsWith("*");
-                fullBlockString = fullBlockString.replace("*", "");
-                int index = fullBlockString.indexOf("[");
-
-                String blockString = fullBlockString.substring(0, index == -1 ? fullBlockString.length() : index);
-                StateType type = StateTypes.getByName(blockString);
+                type = StateTypes.getByName(blockString);
 
                 if (type == null) {
-                    // Let's update the state type to a modern version
-                    for (Map.Entry<String, String> stringEntry : STRING_UPDATER.entrySet()) {
-                        blockString = blockString.replace(stringEntry.getKey(), stringEntry.getValue());
-                    }
-
-                    type = StateTypes.getByName(blockString);
-
-                    if (type == null) {
-                        PacketEvents.getAPI().getLogger().warning("Unknown block type: " + fullBlockString);
-                    }
+                    PacketEvents.getAPI().getLogger().warning("Unknown block type: " + fullBlockString);
                 }
+            }
 
-                String[] data = null;
-                if (index != -1) {
-                    data = fullBlockString.substring(index + 1, fullBlockString.length() - 1).split(",");
-                }
-
-                WrappedBlockState state = new WrappedBlockState(type, data, id, mappingsIndex);
-
-                if (isDefault) {
-                    stateTypeToBlockStateMap.put(state.getType(), state);
-                }
+            String[] data = null;
+            if (index != -1) {
+                data = fullBlockString.substring(index + 1, fullBlockString.length() - 1).split(",");
+            }
 
-                stateByStringMap.put(fullBlockString, state);
-                stateByIdMap.put(id, state);
-                stateToStringMap.put(state, fullBlockString);
-                stateToIdMap.put(state, id);
+            WrappedBlockState state = new WrappedBlockState(type, data, id, mappingsIndex).markImmutable();
 
-                id++;
+            if (mappings.defaults.get(id)) {
+                stateTypeToBlockStateMap.put(state.getType(), state);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
+
+            stateByStringMap.put(fullBlockString, state);
+            stateById[id] = state;
+            stateToStringMap.put(state, fullBlockString);
+            stateToIdMap.put(state, id);
         }
 
-        BY_ID.put(mappingsIndex, stateByIdMap);
-        INTO_ID.put(mappingsIndex, stateToIdMap);
-        BY_STRING.put(mappingsIndex, stateByStringMap);
-        INTO_STRING.put(mappingsIndex, stateToStringMap);
-        DEFAULT_STATES.put(mappingsIndex, stateTypeToBlockStateMap);
+        StateDefinition.link(Arrays.asList(stateById));
+        return new Mappings(stateById, stateToIdMap, stateByStringMap, stateToStringMap, stateTypeToBlockStateMap);
+    }
+
+    private static ModernBlockMappings readModernMappings() {
+        try (InputStream mappings = PacketEvents.getAPI().getSettings().getResourceProvider().apply("assets/mappings/block/modern_block_mappings.bin")) {
+            return ModernBlockMappings.read(mappings);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to read the block mappings!", e);
+        }
     }
 
     @Override
     public WrappedBlockState clone() {
-        return new WrappedBlockState(type, data, globalID, mappingsIndex);
+        WrappedBlockState clone = new WrappedBlockState(type, data, globalID, mappingsIndex);
+        clone.definition = definition;
+        clone.packedIndex = packedIndex;
+        clone.neighbours = neighbours;
+        return clone;
     }
 
     @Override
@@ -343,13 +394,17 @@ public class WrappedBlockState {
         if (!(o instanceof WrappedBlockState)) return false;
         WrappedBlockState that = (WrappedBlockState) o;
         // Don't check the global ID, it is determined by the other data types
-        return type == that.type && data.equals(that.data);
+        if (definition != null && definition == that.definition) {
+            return packedIndex == that.packedIndex;
+        }
+        return type == that.type && getInternalData().equals(that.getInternalData());
     }
 
     @Override
     public int hashCode() {
         // Don't hash the global ID, it is determined by the other data types
-        return Objects.hash(type, data);
+        // States backed by the mappings hash their properties just like the map they were created with
+        return Objects.hash(type, data != null ? data.hashCode() : definition.hashValues(packedIndex));
     }
 
     public StateType getType() {
@@ -358,842 +413,742 @@ public class WrappedBlockState {
 
     // Begin all block data types
     public int getAge() {
-        return (int) data.get(StateValue.AGE);
+        return (int) get(StateValue.AGE);
     }
 
     public void setAge(int age) {
-        checkIfCloneNeeded();
-        data.put(StateValue.AGE, age);
-        checkIsStillValid();
+        set(StateValue.AGE, age);
     }
 
     public boolean isAttached() {
-        return (boolean) data.get(StateValue.ATTACHED);
+        return (boolean) get(StateValue.ATTACHED);
     }
 
     public void setAttached(boolean attached) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ATTACHED, attached);
-        checkIsStillValid();
+        set(StateValue.ATTACHED, attached);
     }
 
     public Attachment getAttachment() {
-        return (Attachment) data.get(StateValue.ATTACHMENT);
+        return (Attachment) get(StateValue.ATTACHMENT);
     }
 
     public void setAttachment(Attachment attachment) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ATTACHMENT, attachment);
-        checkIsStillValid();
+        set(StateValue.ATTACHMENT, attachment);
     }
 
     public Axis getAxis() {
-        return (Axis) data.get(StateValue.AXIS);
+        return (Axis) get(StateValue.AXIS);
     }
 
     public void setAxis(Axis axis) {
-        checkIfCloneNeeded();
-        data.put(StateValue.AXIS, axis);
-        checkIsStillValid();
+        set(StateValue.AXIS, axis);
     }
 
     public boolean isBerries() {
-        return (boolean) data.get(StateValue.BERRIES);
+        return (boolean) get(StateValue.BERRIES);
     }
 
     public void setBerries(boolean berries) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BERRIES, berries);
-        checkIsStillValid();
+        set(StateValue.BERRIES, berries);
     }
 
     public int getBites() {
-        return (int) data.get(StateValue.BITES);
+        return (int) get(StateValue.BITES);
     }
 
     public void setBites(int bites) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BITES, bites);
-        checkIsStillValid();
+        set(StateValue.BITES, bites);
     }
 
     public boolean isBottom() {
-        return (boolean) data.get(StateValue.BOTTOM);
+        return (boolean) get(StateValue.BOTTOM);
     }
 
     public void setBottom(boolean bottom) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BOTTOM, bottom);
-        checkIsStillValid();
+        set(StateValue.BOTTOM, bottom);
     }
 
     public int getCandles() {
-        return (int) data.get(StateValue.CANDLES);
+        return (int) get(StateValue.CANDLES);
     }
 
     public void setCandles(int candles) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CANDLES, candles);
-        checkIsStillValid();
+        set(StateValue.CANDLES, candles);
     }
 
     public int getCharges() {
-        return (int) data.get(StateValue.CHARGES);
+        return (int) get(StateValue.CHARGES);
     }
 
     public void setCharges(int charges) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CHARGES, charges);
-        checkIsStillValid();
+        set(StateValue.CHARGES, charges);
     }
 
     public boolean isConditional() {
-        return (boolean) data.get(StateValue.CONDITIONAL);
+        return (boolean) get(StateValue.CONDITIONAL);
     }
 
     public void setConditional(boolean conditional) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CONDITIONAL, conditional);
-        checkIsStillValid();
+        set(StateValue.CONDITIONAL, conditional);
     }
 
     public int getDelay() {
-        return (int) data.get(StateValue.DELAY);
+        return (int) get(StateValue.DELAY);
     }
 
     public void setDelay(int delay) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DELAY, delay);
-        checkIsStillValid();
+        set(StateValue.DELAY, delay);
     }
 
     public boolean isDisarmed() {
-        return (boolean) data.get(StateValue.DISARMED);
+        return (boolean) get(StateValue.DISARMED);
     }
 
     public void setDisarmed(boolean disarmed) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DISARMED, disarmed);
-        checkIsStillValid();
+        set(StateValue.DISARMED, disarmed);
     }
 
     public int getDistance() {
-        return (int) data.get(StateValue.DISTANCE);
+        return (int) get(StateValue.DISTANCE);
     }
 
     public void setDistance(int distance) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DISTANCE, distance);
-        checkIsStillValid();
+        set(StateValue.DISTANCE, distance);
     }
 
     public boolean isDown() {
-        return (boolean) data.get(StateValue.DOWN);
+        return (boolean) get(StateValue.DOWN);
     }
 
     public void setDown(boolean down) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DOWN, down);
-        checkIsStillValid();
+        set(StateValue.DOWN, down);
     }
 
     public boolean isDrag() {
-        return (boolean) data.get(StateValue.DRAG);
+        return (boolean) get(StateValue.DRAG);
     }
 
     public void setDrag(boolean drag) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DRAG, drag);
-        checkIsStillValid();
+        set(StateValue.DRAG, drag);
     }
 
     public boolean isDusted() {
-        return (boolean) data.get(StateValue.DUSTED);
+        return (boolean) get(StateValue.DUSTED);
     }
 
     public void setDusted(boolean dusted) {
-        checkIfCloneNeeded();
-        data.put(StateValue.DUSTED, dusted);
-        checkIsStillValid();
+        set(StateValue.DUSTED, dusted);
     }
 
     public int getEggs() {
-        return (int) data.get(StateValue.EGGS);
+        return (int) get(StateValue.EGGS);
     }
 
     public void setEggs(int eggs) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EGGS, eggs);
-        checkIsStillValid();
+        set(StateValue.EGGS, eggs);
     }
 
     public boolean isEnabled() {
-        return (boolean) data.get(StateValue.ENABLED);
+        return (boolean) get(StateValue.ENABLED);
     }
 
     public void setEnabled(boolean enabled) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ENABLED, enabled);
-        checkIsStillValid();
+        set(StateValue.ENABLED, enabled);
     }
 
     public boolean isExtended() {
-        return (boolean) data.get(StateValue.EXTENDED);
+        return (boolean) get(StateValue.EXTENDED);
     }
 
     public void setExtended(boolean extended) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EXTENDED, extended);
-        checkIsStillValid();
+        set(StateValue.EXTENDED, extended);
     }
 
     public boolean isEye() {
-        return (boolean) data.get(StateValue.EYE);
+        return (boolean) get(StateValue.EYE);
     }
 
     public void setEye(boolean eye) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EYE, eye);
-        checkIsStillValid();
+        set(StateValue.EYE, eye);
     }
 
     public Face getFace() {
-        return (Face) data.get(StateValue.FACE);
+        return (Face) get(StateValue.FACE);
     }
 
     public void setFace(Face face) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FACE, face);
-        checkIsStillValid();
+        set(StateValue.FACE, face);
     }
 
     public BlockFace getFacing() {
-        return (BlockFace) data.get(StateValue.FACING);
+        return (BlockFace) get(StateValue.FACING);
     }
 
     public void setFacing(BlockFace facing) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FACING, facing);
-        checkIsStillValid();
+        set(StateValue.FACING, facing);
     }
 
     public int getFlowerAmount() {
-        return (int) data.get(StateValue.FLOWER_AMOUNT);
+        return (int) get(StateValue.FLOWER_AMOUNT);
     }
 
     public void setFlowerAmount(int flowerAmount) {
-        checkIfCloneNeeded();
-        data.put(StateValue.FLOWER_AMOUNT, flowerAmount);
-        checkIsStillValid();
+        set(StateValue.FLOWER_AMOUNT, flowerAmount);
     }
 
     public Half getHalf() {
-        return (Half) data.get(StateValue.HALF);
+        return (Half) get(StateValue.HALF);
     }
 
     public void setHalf(Half half) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HALF, half);
-        checkIsStillValid();
+        set(StateValue.HALF, half);
     }
 
     public boolean isHanging() {
-        return (boolean) data.get(StateValue.HANGING);
+        return (boolean) get(StateValue.HANGING);
     }
 
     public void setHanging(boolean hanging) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HANGING, hanging);
-        checkIsStillValid();
+        set(StateValue.HANGING, hanging);
     }
 
     public boolean isHasBook() {
-        return (boolean) data.get(StateValue.HAS_BOOK);
+        return (boolean) get(StateValue.HAS_BOOK);
     }
 
     public void setHasBook(boolean hasBook) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOOK, hasBook);
-        checkIsStillValid();
+        set(StateValue.HAS_BOOK, hasBook);
     }
 
     public boolean isHasBottle0() {
-        return (boolean) data.get(StateValue.HAS_BOTTLE_0);
+        return (boolean) get(StateValue.HAS_BOTTLE_0);
     }
 
     public void setHasBottle0(boolean hasBottle0) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_0, hasBottle0);
-        checkIsStillValid();
+        set(StateValue.HAS_BOTTLE_0, hasBottle0);
     }
 
     public boolean isHasBottle1() {
-        return (boolean) data.get(StateValue.HAS_BOTTLE_1);
+        return (boolean) get(StateValue.HAS_BOTTLE_1);
     }
 
     public void setHasBottle1(boolean hasBottle1) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_1, hasBottle1);
-        checkIsStillValid();
+        set(StateValue.HAS_BOTTLE_1, hasBottle1);
     }
 
     public boolean isHasBottle2() {
-        return (boolean) data.get(StateValue.HAS_BOTTLE_2);
+        return (boolean) get(StateValue.HAS_BOTTLE_2);
     }
 
     public void setHasBottle2(boolean hasBottle2) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_BOTTLE_2, hasBottle2);
-        checkIsStillValid();
+        set(StateValue.HAS_BOTTLE_2, hasBottle2);
     }
 
     public boolean isHasRecord() {
-        return (boolean) data.get(StateValue.HAS_RECORD);
+        return (boolean) get(StateValue.HAS_RECORD);
     }
 
     public void setHasRecord(boolean hasRecord) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HAS_RECORD, hasRecord);
-        checkIsStillValid();
+        set(StateValue.HAS_RECORD, hasRecord);
     }
 
     public int getHatch() {
-        return (int) data.get(StateValue.HATCH);
+        return (int) get(StateValue.HATCH);
     }
 
     public void setHatch(int hatch) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HATCH, hatch);
-        checkIsStillValid();
+        set(StateValue.HATCH, hatch);
     }
 
     public Hinge getHinge() {
-        return (Hinge) data.get(StateValue.HINGE);
+        return (Hinge) get(StateValue.HINGE);
     }
 
     public void setHinge(Hinge hinge) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HINGE, hinge);
-        checkIsStillValid();
+        set(StateValue.HINGE, hinge);
     }
 
     public int getHoneyLevel() {
-        return (int) data.get(StateValue.HONEY_LEVEL);
+        return (int) get(StateValue.HONEY_LEVEL);
     }
 
     public void setHoneyLevel(int honeyLevel) {
-        checkIfCloneNeeded();
-        data.put(StateValue.HONEY_LEVEL, honeyLevel);
-        checkIsStillValid();
+        set(StateValue.HONEY_LEVEL, honeyLevel);
     }
 
     public boolean isInWall() {
-        return (boolean) data.get(StateValue.IN_WALL);
+        return (boolean) get(StateValue.IN_WALL);
     }
 
     public void setInWall(boolean inWall) {
-        checkIfCloneNeeded();
-        data.put(StateValue.IN_WALL, inWall);
-        checkIsStillValid();
+        set(StateValue.IN_WALL, inWall);
     }
 
     public Instrument getInstrument() {
-        return (Instrument) data.get(StateValue.INSTRUMENT);
+        return (Instrument) get(StateValue.INSTRUMENT);
     }
 
     public void setInstrument(Instrument instrument) {
-        checkIfCloneNeeded();
-        data.put(StateValue.INSTRUMENT, instrument);
-        checkIsStillValid();
+        set(StateValue.INSTRUMENT, instrument);
     }
 
     public boolean isInverted() {
-        return (boolean) data.get(StateValue.INVERTED);
+        return (boolean) get(StateValue.INVERTED);
     }
 
     public void setInverted(boolean inverted) {
-        checkIfCloneNeeded();
-        data.put(StateValue.INVERTED, inverted);
-        checkIsStillValid();
+        set(StateValue.INVERTED, inverted);
     }
 
     public int getLayers() {
-        return (int) data.get(StateValue.LAYERS);
+        return (int) get(StateValue.LAYERS);
     }
 
     public void setLayers(int layers) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LAYERS, layers);
-        checkIsStillValid();
+        set(StateValue.LAYERS, layers);
     }
 
     public Leaves getLeaves() {
-        return (Leaves) data.get(StateValue.LEAVES);
+        return (Leaves) get(StateValue.LEAVES);
     }
 
     public void setLeaves(Leaves leaves) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LEAVES, leaves);
-        checkIsStillValid();
+        set(StateValue.LEAVES, leaves);
     }
 
     public int getLevel() {
-        return (int) data.get(StateValue.LEVEL);
+        return (int) get(StateValue.LEVEL);
     }
 
     public void setLevel(int level) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LEVEL, level);
-        checkIsStillValid();
+        set(StateValue.LEVEL, level);
     }
 
     public boolean isLit() {
-        return (boolean) data.get(StateValue.LIT);
+        return (boolean) get(StateValue.LIT);
     }
 
     public void setLit(boolean lit) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LIT, lit);
-        checkIsStillValid();
+        set(StateValue.LIT, lit);
     }
 
     public boolean isLocked() {
-        return (boolean) data.get(StateValue.LOCKED);
+        return (boolean) get(StateValue.LOCKED);
     }
 
     public void setLocked(boolean locked) {
-        checkIfCloneNeeded();
-        data.put(StateValue.LOCKED, locked);
-        checkIsStillValid();
+        set(StateValue.LOCKED, locked);
     }
 
     public Mode getMode() {
-        return (Mode) data.get(StateValue.MODE);
+        return (Mode) get(StateValue.MODE);
     }
 
     public void setMode(Mode mode) {
-        checkIfCloneNeeded();
-        data.put(StateValue.MODE, mode);
-        checkIsStillValid();
+        set(StateValue.MODE, mode);
     }
 
     public int getMoisture() {
-        return (int) data.get(StateValue.MOISTURE);
+        return (int) get(StateValue.MOISTURE);
     }
 
     public void setMoisture(int moisture) {
-        checkIfCloneNeeded();
-        data.put(StateValue.MOISTURE, moisture);
-        checkIsStillValid();
+        set(StateValue.MOISTURE, moisture);
     }
 
     public North getNorth() {
-        return (North) data.get(StateValue.NORTH);
+        return (North) get(StateValue.NORTH);
     }
 
     public void setNorth(North north) {
-        checkIfCloneNeeded();
-        data.put(StateValue.NORTH, north);
-        checkIsStillValid();
+        set(StateValue.NORTH, north);
     }
 
     public int getNote() {
-        return (int) data.get(StateValue.NOTE);
+        return (int) get(StateValue.NOTE);
     }
 
     public void setNote(int note) {
-        checkIfCloneNeeded();
-        data.put(StateValue.NOTE, note);
-        checkIsStillValid();
+        set(StateValue.NOTE, note);
     }
 
     public boolean isOccupied() {
-        return (boolean) data.get(StateValue.OCCUPIED);
+        return (boolean) get(StateValue.OCCUPIED);
     }
 
     public void setOccupied(boolean occupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.OCCUPIED, occupied);
-        checkIsStillValid();
+        set(StateValue.OCCUPIED, occupied);
     }
 
     public boolean isShrieking() {
-        return (boolean) data.get(StateValue.SHRIEKING);
+        return (boolean) get(StateValue.SHRIEKING);
     }
 
     public void setShrieking(boolean shrieking) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHRIEKING, shrieking);
-        checkIsStillValid();
+        set(StateValue.SHRIEKING, shrieking);
     }
 
     public boolean isCanSummon() {
-        return (boolean) data.get(StateValue.CAN_SUMMON);
+        return (boolean) get(StateValue.CAN_SUMMON);
     }
 
     public void setCanSummon(boolean canSummon) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CAN_SUMMON, canSummon);
-        checkIsStillValid();
+        set(StateValue.CAN_SUMMON, canSummon);
     }
 
     public boolean isOpen() {
-        return (boolean) data.get(StateValue.OPEN);
+        return (boolean) get(StateValue.OPEN);
     }
 
     public void setOpen(boolean open) {
-        checkIfCloneNeeded();
-        data.put(StateValue.OPEN, open);
-        checkIsStillValid();
+        set(StateValue.OPEN, open);
     }
 
     public Orientation getOrientation() {
-        return (Orientation) data.get(StateValue.ORIENTATION);
+        return (Orientation) get(StateValue.ORIENTATION);
     }
 
     public void setOrientation(Orientation orientation) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ORIENTATION, orientation);
-        checkIsStillValid();
+        set(StateValue.ORIENTATION, orientation);
     }
 
     public Part getPart() {
-        return (Part) data.get(StateValue.PART);
+        return (Part) get(StateValue.PART);
     }
 
     public void setPart(Part part) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PART, part);
-        checkIsStillValid();
+        set(StateValue.PART, part);
     }
 
     public boolean isPersistent() {
-        return (boolean) data.get(StateValue.PERSISTENT);
+        return (boolean) get(StateValue.PERSISTENT);
     }
 
     public void setPersistent(boolean persistent) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PERSISTENT, persistent);
-        checkIsStillValid();
+        set(StateValue.PERSISTENT, persistent);
     }
 
     public int getPickles() {
-        return (int) data.get(StateValue.PICKLES);
+        return (int) get(StateValue.PICKLES);
     }
 
     public void setPickles(int pickles) {
-        checkIfCloneNeeded();
-        data.put(StateValue.PICKLES, pickles);
-        checkIsStillValid();
+        set(StateValue.PICKLES, pickles);
     }
 
     public int getPower() {
-        return (int) data.get(StateValue.POWER);
+        return (int) get(StateValue.POWER);
     }
 
     public void setPower(int power) {
-        checkIfCloneNeeded();
-        data.put(StateValue.POWER, power);
-        checkIsStillValid();
+        set(StateValue.POWER, power);
     }
 
     public boolean isPowered() {
-        return (boolean) data.get(StateValue.POWERED);
+        return (boolean) get(StateValue.POWERED);
     }
 
     public void setPowered(boolean powered) {
-        checkIfCloneNeeded();
-        data.put(StateValue.POWERED, powered);
-        checkIsStillValid();
+        set(StateValue.POWERED, powered);
     }
 
     public int getRotation() {
-        return (int) data.get(StateValue.ROTATION);
+        return (int) get(StateValue.ROTATION);
     }
 
     public void setRotation(int rotation) {
-        checkIfCloneNeeded();
-        data.put(StateValue.ROTATION, rotation);
-        checkIsStillValid();
+        set(StateValue.ROTATION, rotation);
     }
 
     public SculkSensorPhase getSculkSensorPhase() {
-        return (SculkSensorPhase) data.get(StateValue.SCULK_SENSOR_PHASE);
+        return (SculkSensorPhase) get(StateValue.SCULK_SENSOR_PHASE);
     }
 
     public void setSculkSensorPhase(SculkSensorPhase sculkSensorPhase) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SCULK_SENSOR_PHASE, sculkSensorPhase);
-        checkIsStillValid();
+        set(StateValue.SCULK_SENSOR_PHASE, sculkSensorPhase);
     }
 
     public Shape getShape() {
-        return (Shape) data.get(StateValue.SHAPE);
+        return (Shape) get(StateValue.SHAPE);
     }
 
     public void setShape(Shape shape) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHAPE, shape);
-        checkIsStillValid();
+        set(StateValue.SHAPE, shape);
     }
 
     public boolean isShort() {
-        return (boolean) data.get(StateValue.SHORT);
+        return (boolean) get(StateValue.SHORT);
     }
 
     public void setShort(boolean short_) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SHORT, short_);
-        checkIsStillValid();
+        set(StateValue.SHORT, short_);
     }
 
     public boolean isSignalFire() {
-        return (boolean) data.get(StateValue.SIGNAL_FIRE);
+        return (boolean) get(StateValue.SIGNAL_FIRE);
     }
 
     public void setSignalFire(boolean signalFire) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SIGNAL_FIRE, signalFire);
-        checkIsStillValid();
+        set(StateValue.SIGNAL_FIRE, signalFire);
     }
 
     public boolean isSlotZeroOccupied() {
-        return (boolean) data.get(StateValue.SLOT_0_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_0_OCCUPIED);
     }
 
     public void setSlotZeroOccupied(boolean slotZeroOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_0_OCCUPIED, slotZeroOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_0_OCCUPIED, slotZeroOccupied);
     }
 
     public boolean isSlotOneOccupied() {
-        return (boolean) data.get(StateValue.SLOT_1_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_1_OCCUPIED);
     }
 
     public void setSlotOneOccupied(boolean slotOneOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_1_OCCUPIED, slotOneOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_1_OCCUPIED, slotOneOccupied);
     }
 
     public boolean isSlotTwoOccupied() {
-        return (boolean) data.get(StateValue.SLOT_2_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_2_OCCUPIED);
     }
 
     public void setSlotTwoOccupied(boolean slotTwoOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_2_OCCUPIED, slotTwoOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_2_OCCUPIED, slotTwoOccupied);
     }
 
     public boolean isSlotThreeOccupied() {
-        return (boolean) data.get(StateValue.SLOT_3_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_3_OCCUPIED);
     }
 
     public void setSlotThreeOccupied(boolean slotThreeOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_3_OCCUPIED, slotThreeOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_3_OCCUPIED, slotThreeOccupied);
     }
 
     public boolean isSlotFourOccupied() {
-        return (boolean) data.get(StateValue.SLOT_4_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_4_OCCUPIED);
     }
 
     public void setSlotFourOccupied(boolean slotFourOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_4_OCCUPIED, slotFourOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_4_OCCUPIED, slotFourOccupied);
     }
 
     public boolean isSlotFiveOccupied() {
-        return (boolean) data.get(StateValue.SLOT_5_OCCUPIED);
+        return (boolean) get(StateValue.SLOT_5_OCCUPIED);
     }
 
     public void setSlotFiveOccupied(boolean slotFiveOccupied) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SLOT_5_OCCUPIED, slotFiveOccupied);
-        checkIsStillValid();
+        set(StateValue.SLOT_5_OCCUPIED, slotFiveOccupied);
     }
 
     public boolean isSnowy() {
-        return (boolean) data.get(StateValue.SNOWY);
+        return (boolean) get(StateValue.SNOWY);
     }
 
     public void setSnowy(boolean snowy) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SNOWY, snowy);
-        checkIsStillValid();
+        set(StateValue.SNOWY, snowy);
     }
 
     public int getStage() {
-        return (int) data.get(StateValue.STAGE);
+        return (int) get(StateValue.STAGE);
     }
 
     public void setStage(int stage) {
-        checkIfCloneNeeded();
-        data.put(StateValue.STAGE, stage);
-        checkIsStillValid();
+        set(StateValue.STAGE, stage);
     }
 
     public South getSouth() {
-        return (South) data.get(StateValue.SOUTH);
+        return (South) get(StateValue.SOUTH);
     }
 
     public void setSouth(South south) {
-        checkIfCloneNeeded();
-        data.put(StateValue.SOUTH, south);
-        checkIsStillValid();
+        set(StateValue.SOUTH, south);
     }
 
     public Thickness getThickness() {
-        return (Thickness) data.get(StateValue.THICKNESS);
+        return (Thickness) get(StateValue.THICKNESS);
     }
 
     public void setThickness(Thickness thickness) {
-        checkIfCloneNeeded();
-        data.put(StateValue.THICKNESS, thickness);
-        checkIsStillValid();
+        set(StateValue.THICKNESS, thickness);
     }
 
     public Tilt getTilt() {
-        return (Tilt) data.get(StateValue.TILT);
+        return (Tilt) get(StateValue.TILT);
     }
 
     public void setTilt(Tilt tilt) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TILT, tilt);
-        checkIsStillValid();
+        set(StateValue.TILT, tilt);
     }
 
     public boolean isTriggered() {
-        return (boolean) data.get(StateValue.TRIGGERED);
+        return (boolean) get(StateValue.TRIGGERED);
     }
 
     public void setTriggered(boolean triggered) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TRIGGERED, triggered);
-        checkIsStillValid();
+        set(StateValue.TRIGGERED, triggered);
     }
 
     public Type getTypeData() {
-        return (Type) data.get(StateValue.TYPE);
+        return (Type) get(StateValue.TYPE);
     }
 
     public void setTypeData(Type type) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TYPE, type);
-        checkIsStillValid();
+        set(StateValue.TYPE, type);
     }
 
     public boolean isUnstable() {
-        return (boolean) data.get(StateValue.UNSTABLE);
+        return (boolean) get(StateValue.UNSTABLE);
     }
 
     public void setUnstable(boolean unstable) {
-        checkIfCloneNeeded();
-        data.put(StateValue.UNSTABLE, unstable);
-        checkIsStillValid();
+        set(StateValue.UNSTABLE, unstable);
     }
 
     public boolean isUp() {
-        return (boolean) data.get(StateValue.UP);
+        return (boolean) get(StateValue.UP);
     }
 
     public void setUp(boolean up) {
-        checkIfCloneNeeded();
-        data.put(StateValue.UP, up);
-        checkIsStillValid();
+        set(StateValue.UP, up);
     }
 
     public VerticalDirection getVerticalDirection() {
-        return (VerticalDirection) data.get(StateValue.VERTICAL_DIRECTION);
+        return (VerticalDirection) get(StateValue.VERTICAL_DIRECTION);
     }
 
     public void setVerticalDirection(VerticalDirection verticalDirection) {
-        checkIfCloneNeeded();
-        data.put(StateValue.VERTICAL_DIRECTION, verticalDirection);
-        checkIsStillValid();
+        set(StateValue.VERTICAL_DIRECTION, verticalDirection);
     }
 
     public boolean isWaterlogged() {
-        return (boolean) data.get(StateValue.WATERLOGGED);
+        return (boolean) get(StateValue.WATERLOGGED);
     }
 
     public void setWaterlogged(boolean waterlogged) {
-        checkIfCloneNeeded();
-        data.put(StateValue.WATERLOGGED, waterlogged);
-        checkIsStillValid();
+        set(StateValue.WATERLOGGED, waterlogged);
     }
 
     public East getEast() {
-        return (East) data.get(StateValue.EAST);
+        return (East) get(StateValue.EAST);
     }
 
     public void setEast(East west) {
-        checkIfCloneNeeded();
-        data.put(StateValue.EAST, west);
-        checkIsStillValid();
+        set(StateValue.EAST, west);
     }
 
     public West getWest() {
-        return (West) data.get(StateValue.WEST);
+        return (West) get(StateValue.WEST);
     }
 
     public void setWest(West west) {
-        checkIfCloneNeeded();
-        data.put(StateValue.WEST, west);
-        checkIsStillValid();
+        set(StateValue.WEST, west);
     }
 
     public Bloom getBloom() {
-        return (Bloom) data.get(StateValue.BLOOM);
+        return (Bloom) get(StateValue.BLOOM);
     }
 
     public void setBloom(Bloom bloom) {
-        checkIfCloneNeeded();
-        data.put(StateValue.BLOOM, bloom);
-        checkIsStillValid();
+        set(StateValue.BLOOM, bloom);
     }
 
     public boolean isCracked() {
-        return (boolean) data.get(StateValue.CRACKED);
+        return (boolean) get(StateValue.CRACKED);
     }
 
     public void setCracked(boolean cracked) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CRACKED, cracked);
-        checkIsStillValid();
+        set(StateValue.CRACKED, cracked);
     }
 
     public boolean isCrafting() {
-        return (boolean) data.get(StateValue.CRAFTING);
+        return (boolean) get(StateValue.CRAFTING);
     }
 
     public void setCrafting(boolean crafting) {
-        checkIfCloneNeeded();
-        data.put(StateValue.CRAFTING, crafting);
-        checkIsStillValid();
+        set(StateValue.CRAFTING, crafting);
     }
 
     public TrialSpawnerState getTrialSpawnerState() {
-        return (TrialSpawnerState) data.get(StateValue.TRIAL_SPAWNER_STATE);
+        return (TrialSpawnerState) get(StateValue.TRIAL_SPAWNER_STATE);
     }
 
     public void setTrialSpawnerState(TrialSpawnerState trialSpawnerState) {
-        checkIfCloneNeeded();
-        data.put(StateValue.TRIAL_SPAWNER_STATE, trialSpawnerState);
-        checkIsStillValid();
+        set(StateValue.TRIAL_SPAWNER_STATE, trialSpawnerState);
     }
 
     // End all block data types
 
+    @Nullable
+    private Object get(StateValue property) {
+        return definition != null ? definition.getValue(packedIndex, property) : data.get(property);
+    }
+
+    /**
+     * Modify a single property of this block state.
+     * States backed by the mappings simply move to the neighbouring state holding the new value,
+     * which neither allocates nor needs to look up the modified properties.
+     * Invalid modifications are reverted, see {@link #checkIsStillValid()}
+     */
+    private void set(StateValue property, Object value) {
+        if (definition == null) {
+            checkIfCloneNeeded();
+            data.put(property, value);
+            checkIsStillValid();
+            return;
+        }
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify the shared block state " + this + ", clone it first!");
+        }
+        WrappedBlockState neighbour = null;
+        int propertyOrdinal = definition.propertyOrdinals[property.ordinal()];
+        if (propertyOrdinal != -1) {
+            WrappedBlockState[] states = neighbours[propertyOrdinal];
+            int valueOrdinal = StateDefinition.valueOrdinal(value);
+            if (valueOrdinal >= 0 && valueOrdinal < states.length) {
+                neighbour = states[valueOrdinal];
+            }
+        }
+        if (neighbour != null) {
+            copyState(neighbour);
+        } else if (PacketEvents.getAPI().getSettings().isDebugEnabled()) {
+            warnInvalidModification(property, value);
+        }
+    }
+
+    private void copyState(WrappedBlockState state) {
+        this.type = state.type;
+        this.globalID = state.globalID;
+        this.data = state.data;
+        this.hasClonedData = false;
+        this.definition = state.definition;
+        this.packedIndex = state.packedIndex;
+        this.neighbours = state.neighbours;
+    }
+
+    private WrappedBlockState markImmutable() {
+        this.immutable = true;
+        return this;
+    }
+
+    /**
+     * Immutable block states are the instances shared by everyone, which you receive when not cloning
+     * them upon lookup. They are cheap to obtain, but their properties can't be modified.
+     * Use {@link #clone()} to get a modifiable copy.
+     *
+     * @return Whether this block state can't be modified
+     */
+    public boolean isImmutable() {
+        return immutable;
+    }
+
     /**
      * We can't modify all blocks of a type when modifying a single block.
      * Cloning on every wrapped block state is too expensive.
      */
     private void checkIfCloneNeeded() {
+        if (immutable) {
+            throw new UnsupportedOperationException("Cannot modify the shared block state " + this + ", clone it first!");
+        }
         if (!hasClonedData) {
             data = new HashMap<>(data);
             hasClonedData = true;
@@ -1209,24 +1164,40 @@ public class WrappedBlockState {
     private void checkIsStillValid() {
         int oldGlobalID = globalID;
         globalID = getGlobalIdNoCache();
+        WrappedBlockState[] byId = getMappings(mappingsIndex).byId;
         if (globalID == -1) { // -1 maps to no block as negative ID are impossible
-            WrappedBlockState blockState = BY_ID.get(mappingsIndex).getOrDefault(oldGlobalID, AIR).clone();
-            this.type = blockState.type;
-            this.globalID = blockState.globalID;
-            this.data = new HashMap<>(blockState.data);
+            WrappedBlockState blockState = oldGlobalID >= 0 && oldGlobalID < byId.length && byId[oldGlobalID] != null
+                    ? byId[oldGlobalID] : AIR;
+            if (blockState.definition != null) {
+                copyState(blockState);
+            } else {
+                this.type = blockState.type;
+                this.globalID = blockState.globalID;
+                this.data = new HashMap<>(blockState.data);
+            }
 
             // Stack tracing is expensive
             if (PacketEvents.getAPI().getSettings().isDebugEnabled()) {
-                PacketEvents.getAPI().getLogManager().warn("Attempt to modify an unknown property for this game version and block!");
-                PacketEvents.getAPI().getLogManager().warn("Block: " + type.getName());
-                for (Map.Entry<StateValue, Object> entry : data.entrySet()) {
-                    PacketEvents.getAPI().getLogManager().warn(entry.getKey() + ": " + entry.getValue());
-                }
-                new IllegalStateException("An invalid modification was made to a block!").printStackTrace();
+                warnInvalidModification(null, null);
             }
+        } else if (globalID < byId.length && byId[globalID] != null && byId[globalID].definition != null) {
+            // We now know which state we are, so further modifications can take the fast path
+            copyState(byId[globalID]);
         }
     }
 
+    private void warnInvalidModification(@Nullable StateValue property, @Nullable Object value) {
+        PacketEvents.getAPI().getLogManager().warn("Attempt to modify an unknown property for this game version and block!");
+        PacketEvents.getAPI().getLogManager().warn("Block: " + type.getName());
+        for (Map.Entry<StateValue, Object> entry : getInternalData().entrySet()) {
+            PacketEvents.getAPI().getLogManager().warn(entry.getKey() + ": " + entry.getValue());
+        }
+        if (property != null) {
+            PacketEvents.getAPI().getLogManager().warn("Modified: " + property + ": " + value);
+        }
+        new IllegalStateException("An invalid modification was made to a block!").printStackTrace();
+    }
+
     /**
      * This method is helpful if you want to check if a block can be
      * waterlogged, or has other properties.
@@ -1236,7 +1207,7 @@ public class WrappedBlockState {
      */
     @Deprecated
     public Map<StateValue, Object> getInternalData() {
-        return data;
+        return data != null ? data : definition.getValues(packedIndex);
     }
 
     /**
@@ -1254,11 +1225,186 @@ public class WrappedBlockState {
      * Internal method for determining if the block state is still valid
      */
     private int getGlobalIdNoCache() {
-        return INTO_ID.get(mappingsIndex).getOrDefault(this, -1);
+        return getMappings(mappingsIndex).intoId.getOrDefault(this, -1);
     }
 
     @Override
     public String toString() {
-        return INTO_STRING.get(mappingsIndex).get(this);
+        return getMappings(mappingsIndex).intoString.get(this);
+    }
+
+    /**
+     * All lookup tables of a single mappings index.
+     * Never modified after construction, so they are safe to share between threads.
+     */
+    private static final class Mappings {
+        // Indexed by global id, unused ids are null
+        private final WrappedBlockState[] byId;
+        private final Map<WrappedBlockState, Integer> intoId;
+        private final Map<String, WrappedBlockState> byString;
+        private final Map<WrappedBlockState, String> intoString;
+        private final Map<StateType, WrappedBlockState> defaultStates;
+
+        private Mappings(WrappedBlockState[] byId, Map<WrappedBlockState, Integer> intoId,
+                         Map<String, WrappedBlockState> byString, Map<WrappedBlockState, String> intoString,
+                         Map<StateType, WrappedBlockState> defaultStates) {
+            this.byId = byId;
+            this.intoId = intoId;
+            this.byString = byString;
+            this.intoString = intoString;
+            this.defaultStates = defaultStates;
+        }
+    }
+
+    /**
+     * All states of a block type within one mappings index, in the spirit of vanilla's StateDefinition.
+     * Every state is identified by the packed ordinals of its property values,
+     * which is all it needs to read its properties. Moving to the state with a single different property value
+     * is a lookup in the neighbour table every state gets when the definition is built.
+     */
+    private static final class StateDefinition {
+        // Block types with more combinations than this aren't worth a table
+        private static final int MAX_STATES = 1 << 16;
+        private static final int PROPERTY_COUNT = StateValue.values().length;
+
+        private final StateValue[] properties;
+        // Indexed by StateValue#ordinal, the position of the property in this definition or -1 if absent
+        private final byte[] propertyOrdinals;
+        // Possible values of each property, indexed by value ordinal, null for values that don't exist
+        private final Object[][] values;
+        private final int[] strides;
+
+        private StateDefinition(StateValue[] properties, Object[][] values, int[] strides) {
+            this.properties = properties;
+            this.propertyOrdinals = new byte[PROPERTY_COUNT];
+            Arrays.fill(this.propertyOrdinals, (byte) -1);
+            for (int i = 0; i < properties.length; i++) {
+                this.propertyOrdinals[properties[i].ordinal()] = (byte) i;
+            }
+            this.values = values;
+            this.strides = strides;
+        }
+
+        /**
+         * Property values are small non-negative integers, booleans or enum constants,
+         * so they can index the neighbour tables directly.
+         *
+         * @return The ordinal of this value, or -1 if it has none
+         */
+        private static int valueOrdinal(Object value) {
+            if (value instanceof Integer) {
+                return (Integer) value;
+            } else if (value instanceof Boolean) {
+                return (Boolean) value ? 1 : 0;
+            } else if (value instanceof Enum) {
+                return ((Enum<?>) value).ordinal();
+            }
+            return -1;
+        }
+
+        /**
+         * Group the states by their type and link every state to the definition of its type.
+         * Later states replace earlier ones with the same properties, like in the INTO_ID mappings.
+         * Linked states drop their property map, as the definition describes their properties from then on.
+         */
+        private static void link(List<WrappedBlockState> states) {
+            Map<StateType, List<WrappedBlockState>> statesByType = new HashMap<>();
+            for (WrappedBlockState state : states) {
+                if (state != null && state.type != null) {
+                    statesByType.computeIfAbsent(state.type, k -> new ArrayList<>()).add(state);
+                }
+            }
+            for (List<WrappedBlockState> typeStates : statesByType.values()) {
+                link0(typeStates);
+            }
+        }
+
+        private static void link0(List<WrappedBlockState> states) {
+            Set<StateValue> keys = states.get(0).data.keySet();
+            StateValue[] properties = keys.toArray(new StateValue[0]);
+            Arrays.sort(properties);
+            int[] sizes = new int[properties.length];
+            for (WrappedBlockState state : states) {
+                // A type should never mix properties, but if it does, we can't describe it
+                if (!state.data.keySet().equals(keys)) {
+                    return;
+                }
+                for (int i = 0; i < properties.length; i++) {
+                    int valueOrdinal = valueOrdinal(state.data.get(properties[i]));
+                    if (valueOrdinal < 0 || valueOrdinal >= MAX_STATES) {
+                        return;
+                    }
+                    sizes[i] = Math.max(sizes[i], valueOrdinal + 1);
+                }
+            }
+
+            int[] strides = new int[properties.length];
+            Object[][] values = new Object[properties.length][];
+            long size = 1;
+            for (int i = properties.length - 1; i >= 0; i--) {
+                strides[i] = (int) size;
+                values[i] = new Object[sizes[i]];
+                size *= sizes[i];
+                if (size > MAX_STATES) {
+                    return;
+                }
+            }
+
+            StateDefinition definition = new StateDefinition(properties, values, strides);
+            // Indexed by packed ordinals, null for combinations that don't exist
+            WrappedBlockState[] statesByIndex = new WrappedBlockState[(int) size];
+            for (WrappedBlockState state : states) {
+                int packedIndex = 0;
+                for (int i = 0; i < properties.length; i++) {
+                    Object value = state.data.get(properties[i]);
+                    int valueOrdinal = valueOrdinal(value);
+                    values[i][valueOrdinal] = value;
+                    packedIndex += valueOrdinal * strides[i];
+                }
+                state.packedIndex = packedIndex;
+                statesByIndex[packedIndex] = state;
+            }
+
+            for (WrappedBlockState state : states) {
+                WrappedBlockState[][] neighbours = new WrappedBlockState[properties.length][];
+                for (int i = 0; i < properties.length; i++) {
+                    int currentOrdinal = state.packedIndex / strides[i] % sizes[i];
+                    neighbours[i] = new WrappedBlockState[sizes[i]];
+                    for (int valueOrdinal = 0; valueOrdinal < sizes[i]; valueOrdinal++) {
+                        neighbours[i][valueOrdinal] = statesByIndex[state.packedIndex + (valueOrdinal - currentOrdinal) * strides[i]];
+                    }
+                }
+                state.neighbours = neighbours;
+                state.definition = definition;
+                state.data = null;
+            }
+        }
+
+        @Nullable
+        private Object getValue(int packedIndex, StateValue property) {
+            int propertyOrdinal = propertyOrdinals[property.ordinal()];
+            if (propertyOrdinal == -1) {
+                return null;
+            }
+            Object[] propertyValues = values[propertyOrdinal];
+            return propertyValues[packedIndex / strides[propertyOrdinal] % propertyValues.length];
+        }
+
+        private Map<StateValue, Object> getValues(int packedIndex) {
+            Map<StateValue, Object> map = new EnumMap<>(StateValue.class);
+            for (StateValue property : properties) {
+                map.put(property, getValue(packedIndex, property));
+            }
+            return Collections.unmodifiableMap(map);
+        }
+
+        // Same as the hash code of the map returned by getValues
+        private int hashValues(int packedIndex) {
+            int hash = 0;
+            for (StateValue property : properties) {
+                hash += property.hashCode() ^ getValue(packedIndex, property).hashCode();
+            }
+            return hash;
+        }
     }
 }
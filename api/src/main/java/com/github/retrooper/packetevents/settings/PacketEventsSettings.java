@@ -18,10 +18,12 @@
 
 package com.github.retrooper.packetevents.settings;
 
+import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.TimeStampMode;
 
 import java.io.InputStream;
 import java.util.function.Function;
+import java.util.zip.Deflater;
 
 /**
  * Packet Events' settings.
@@ -39,6 +41,9 @@ public class PacketEventsSettings {
     private boolean debugEnabled = false;
     private boolean fullStackTraceEnabled = false;
     private boolean kickOnPacketExceptionEnabled = true;
+    private boolean lazyDecodingEnabled = false;
+    private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+    private boolean chunkCacheEnabled = false;
     private Function<String, InputStream> resourceProvider = path -> PacketEventsSettings.class
             .getClassLoader()
             .getResourceAsStream(path);
@@ -137,6 +142,47 @@ public class PacketEventsSettings {
         return this;
     }
 
+    /**
+     * This decides if wrappers should only decode heavy fields, like entity metadata or chunk columns,
+     * once their getters are called. Until then, the raw bytes are kept and written back as they were.
+     * Malformed packets will then only throw once such a getter is called.
+     *
+     * @param lazyDecodingEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings lazyDecoding(boolean lazyDecodingEnabled) {
+        this.lazyDecodingEnabled = lazyDecodingEnabled;
+        return this;
+    }
+
+    /**
+     * This decides which zlib compression level is used, when PacketEvents has to compress data itself,
+     * like the chunk data of 1.7 packets.
+     * Higher levels produce smaller packets, but take more time to compress.
+     *
+     * @param compressionLevel Level from 0 to 9, or -1 for zlib's default
+     * @return Settings instance.
+     */
+    public PacketEventsSettings compressionLevel(int compressionLevel) {
+        if (compressionLevel < Deflater.DEFAULT_COMPRESSION || compressionLevel > Deflater.BEST_COMPRESSION) {
+            throw new IllegalArgumentException("Invalid compression level " + compressionLevel);
+        }
+        this.compressionLevel = compressionLevel;
+        return this;
+    }
+
+    /**
+     * This decides if every user should keep the chunks the server sent them, see {@link User#getChunkCache()}.
+     * Each chunk packet is then decoded once when it is sent, and block changes are applied to the cached chunks.
+     *
+     * @param chunkCacheEnabled Value
+     * @return Settings instance.
+     */
+    public PacketEventsSettings chunkCache(boolean chunkCacheEnabled) {
+        this.chunkCacheEnabled = chunkCacheEnabled;
+        return this;
+    }
+
     /**
      * Some projects may want to implement a CDN with resources like asset mappings
      * By default, all resources are retrieved from the ClassLoader
@@ -212,6 +258,33 @@ public class PacketEventsSettings {
         return kickOnPacketExceptionEnabled;
     }
 
+    /**
+     * Should wrappers decode heavy fields only when they are accessed?
+     *
+     * @return Getter for {@link #lazyDecodingEnabled}
+     */
+    public boolean isLazyDecodingEnabled() {
+        return lazyDecodingEnabled;
+    }
+
+    /**
+     * Which zlib compression level should we use?
+     *
+     * @return Getter for {@link #compressionLevel}
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+    /**
+     * Should we keep the chunks sent to each user?
+     *
+     * @return Getter for {@link #chunkCacheEnabled}
+     */
+    public boolean isChunkCacheEnabled() {
+        return chunkCacheEnabled;
+    }
+
     /**
      * As described above, this method retrieves the function that acquires the InputStream
      * of a desired resource by its path.
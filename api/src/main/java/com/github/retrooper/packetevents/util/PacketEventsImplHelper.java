@@ -23,13 +23,51 @@ import com.github.retrooper.packetevents.event.PacketReceiveEvent;
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.event.UserDisconnectEvent;
 import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 import com.github.retrooper.packetevents.protocol.player.User;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.UUID;
 
 public class PacketEventsImplHelper {
+
+    /**
+     * Check whether any listener wants to be notified about a packet, before creating an event for it.
+     * Packets nobody listens to can be passed on as they are, without the cost of an event.
+     * The reader index of the buffer isn't changed.
+     *
+     * @param side                    Side the packet is sent by
+     * @param user                    User the packet is sent to or received from
+     * @param buffer                  Packet, starting with its id
+     * @param autoProtocolTranslation Like the parameter of the event constructors
+     * @return Whether an event should be created, which is also the case if the packet type is unknown,
+     * so the event reports the invalid packet
+     */
+    public static boolean hasListeners(PacketSide side, User user, Object buffer, boolean autoProtocolTranslation) {
+        int readerIndex = ByteBufHelper.readerIndex(buffer);
+        int packetId;
+        try {
+            packetId = ByteBufHelper.readVarInt(buffer);
+        } catch (Exception e) {
+            return true;
+        } finally {
+            ByteBufHelper.readerIndex(buffer, readerIndex);
+        }
+        // Resolved like the event does, see ProtocolPacketEvent
+        ServerVersion serverVersion = autoProtocolTranslation || user.getClientVersion() == null
+                ? PacketEvents.getAPI().getServerManager().getVersion()
+                : user.getClientVersion().toServerVersion();
+        ClientVersion version = serverVersion.toClientVersion();
+        ConnectionState state = side == PacketSide.CLIENT ? user.getDecoderState() : user.getEncoderState();
+        PacketTypeCommon packetType = PacketType.getById(side, state, version, packetId);
+        return packetType == null || PacketEvents.getAPI().getEventManager().hasListeners(packetType);
+    }
     
     public static PacketSendEvent handleClientBoundPacket(Object channel, 
                                                               User user, 
@@ -37,6 +75,7 @@ public class PacketEventsImplHelper {
                                                               Object buffer, 
                                                              boolean autoProtocolTranslation) throws Exception {
         if (!ByteBufHelper.isReadable(buffer)) return null;
+        if (!hasListeners(PacketSide.SERVER, user, buffer, autoProtocolTranslation)) return null;
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketSendEvent packetSendEvent = EventCreationUtil.createSendEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -75,6 +114,7 @@ public class PacketEventsImplHelper {
                                                              Object buffer,
                                                              boolean autoProtocolTranslation) throws Exception {
         if (!ByteBufHelper.isReadable(buffer)) return null;
+        if (!hasListeners(PacketSide.CLIENT, user, buffer, autoProtocolTranslation)) return null;
 
         int preProcessIndex = ByteBufHelper.readerIndex(buffer);
         PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(channel, user, player, buffer, autoProtocolTranslation);
@@ -26,4 +26,33 @@ public class StringUtil {
             return msg;
         }
     }
+
+    /**
+     * Get the number of bytes the string takes up when encoded as UTF-8, without encoding it.
+     * Like {@link String#getBytes(java.nio.charset.Charset)}, unpaired surrogates count as a single '?'.
+     *
+     * @param string String to measure
+     * @return Encoded length in bytes
+     */
+    public static int getUTF8Length(CharSequence string) {
+        int length = string.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                // Two chars, four bytes
+                bytes += 2;
+                i++;
+            }
+        }
+        return bytes;
+    }
 }
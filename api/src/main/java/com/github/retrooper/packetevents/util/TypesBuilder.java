@@ -24,9 +24,17 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
 public class TypesBuilder {
     private final String mapPath;
     private JsonObject fileMappings;
+    private Map<String, int[]> arrayIndex;
+    private Map<String, int[]> objectIndex;
+    private int[] objectDefaultIds;
     private final VersionMapper versionMapper;
 
     public TypesBuilder(String mapPath,
@@ -53,53 +61,80 @@ public class TypesBuilder {
 
     public void unloadFileMappings() {
         fileMappings = null;
+        arrayIndex = null;
+        objectIndex = null;
+        objectDefaultIds = null;
     }
 
-    public TypesBuilderData defineFromArray(String key) {
+    private JsonObject loadFileMappings() {
         if (fileMappings == null) {
             fileMappings = MappingHelper.getJSONObject(mapPath);
         }
-        ResourceLocation name = new ResourceLocation(key);
-        int[] ids = new int[getVersions().length];
-        int index = 0;
-        for (ClientVersion v : getVersions()) {
-            JsonArray array = fileMappings.getAsJsonArray(v.name());
-            int tempId = 0;
-            for (JsonElement element : array) {
-                if (element.isJsonPrimitive()) {
-                    String elementString = element.getAsString();
-                    if (elementString.equals(key)) {
-                        ids[index] = tempId;
-                        break;
+        return fileMappings;
+    }
+
+    // Maps every key to its id in each version, so we only have to walk the mappings once
+    private Map<String, int[]> getArrayIndex() {
+        if (arrayIndex == null) {
+            JsonObject mappings = loadFileMappings();
+            ClientVersion[] versions = getVersions();
+            Map<String, int[]> index = new HashMap<>();
+            Set<String> seen = new HashSet<>();
+            for (int i = 0; i < versions.length; i++) {
+                JsonArray array = mappings.getAsJsonArray(versions[i].name());
+                int tempId = 0;
+                seen.clear();
+                for (JsonElement element : array) {
+                    if (element.isJsonPrimitive()) {
+                        String elementString = element.getAsString();
+                        // Only the first occurrence of a key counts
+                        if (seen.add(elementString)) {
+                            index.computeIfAbsent(elementString, k -> new int[versions.length])[i] = tempId;
+                        }
+                        tempId++;
                     }
-                    tempId++;
                 }
             }
-            index++;
+            arrayIndex = index;
         }
-        return new TypesBuilderData(name, ids);
+        return arrayIndex;
     }
 
-    public TypesBuilderData define(String key) {
-        if (fileMappings == null) {
-            fileMappings = MappingHelper.getJSONObject(mapPath);
-        }
-        ResourceLocation name = new ResourceLocation(key);
-        int[] ids = new int[getVersions().length];
-        int index = 0;
-        for (ClientVersion v : getVersions()) {
-            if (fileMappings.has(v.name())) {
-                JsonObject jsonMap = fileMappings.getAsJsonObject(v.name());
-                if (jsonMap.has(key)) {
-                    int id = jsonMap.get(key).getAsInt();
-                    ids[index] = id;
+    private Map<String, int[]> getObjectIndex() {
+        if (objectIndex == null) {
+            JsonObject mappings = loadFileMappings();
+            ClientVersion[] versions = getVersions();
+            // Keys missing from a version are -1, unless the version itself is missing
+            int[] defaultIds = new int[versions.length];
+            Map<String, int[]> index = new HashMap<>();
+            for (int i = 0; i < versions.length; i++) {
+                if (mappings.has(versions[i].name())) {
+                    defaultIds[i] = -1;
                 }
-                else {
-                    ids[index] = -1;
+            }
+            for (int i = 0; i < versions.length; i++) {
+                if (mappings.has(versions[i].name())) {
+                    JsonObject jsonMap = mappings.getAsJsonObject(versions[i].name());
+                    for (Map.Entry<String, JsonElement> entry : jsonMap.entrySet()) {
+                        index.computeIfAbsent(entry.getKey(), k -> defaultIds.clone())[i] = entry.getValue().getAsInt();
+                    }
                 }
             }
-            index++;
+            objectDefaultIds = defaultIds;
+            objectIndex = index;
         }
-        return new TypesBuilderData(name, ids);
+        return objectIndex;
+    }
+
+    public TypesBuilderData defineFromArray(String key) {
+        ResourceLocation name = new ResourceLocation(key);
+        int[] ids = getArrayIndex().get(key);
+        return new TypesBuilderData(name, ids != null ? ids.clone() : new int[getVersions().length]);
+    }
+
+    public TypesBuilderData define(String key) {
+        ResourceLocation name = new ResourceLocation(key);
+        int[] ids = getObjectIndex().get(key);
+        return new TypesBuilderData(name, (ids != null ? ids : objectDefaultIds).clone());
     }
 }
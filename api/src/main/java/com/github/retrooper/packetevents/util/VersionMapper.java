@@ -21,8 +21,12 @@ package com.github.retrooper.packetevents.util;
 import com.github.retrooper.packetevents.protocol.player.ClientVersion;
 
 public class VersionMapper {
+    private static final ClientVersion[] CLIENT_VERSIONS = ClientVersion.values();
+
     private final ClientVersion[] versions;
     private final ClientVersion[] reversedVersions;
+    // Mapping index of every client version, indexed by its ordinal
+    private final byte[] indices;
 
     public VersionMapper(ClientVersion... versions) {
         this.versions = versions;
@@ -32,6 +36,13 @@ public class VersionMapper {
             reversedVersions[index] = versions[i];
             index++;
         }
+        if (versions.length > Byte.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many versions: " + versions.length);
+        }
+        indices = new byte[CLIENT_VERSIONS.length];
+        for (ClientVersion version : CLIENT_VERSIONS) {
+            indices[version.ordinal()] = (byte) computeIndex(version);
+        }
     }
 
     public ClientVersion[] getVersions() {
@@ -43,6 +54,10 @@ public class VersionMapper {
     }
 
     public int getIndex(ClientVersion version) {
+        return indices[version.ordinal()];
+    }
+
+    private int computeIndex(ClientVersion version) {
         int index = reversedVersions.length - 1;
         for (ClientVersion v : reversedVersions) {
             if (version.isNewerThanOrEquals(v)) {
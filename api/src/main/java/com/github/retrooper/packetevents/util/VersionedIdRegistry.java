@@ -0,0 +1,87 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Maps protocol ids to values, per mapping index (see {@link VersionMapper#getIndex} and {@link TypesBuilder#getDataIndex}).
+ * The values are stored in dense arrays, so lookups don't box the id or hash anything.
+ *
+ * @param <T> Type of the registered values
+ */
+public final class VersionedIdRegistry<T> {
+    private static final Object[] EMPTY = new Object[0];
+
+    // Indexed by mapping index, then by protocol id
+    private Object[][] entries = new Object[0][];
+
+    /**
+     * Register a value. Negative indices and ids are ignored, as they mark values which don't exist in a version.
+     * If another value was registered with the same index and id, it is replaced.
+     *
+     * @param index Mapping index
+     * @param id    Protocol id
+     * @param value Value
+     */
+    public void put(int index, int id, T value) {
+        if (index < 0 || id < 0) {
+            return;
+        }
+        if (index >= entries.length) {
+            Object[][] entries = new Object[index + 1][];
+            System.arraycopy(this.entries, 0, entries, 0, this.entries.length);
+            for (int i = this.entries.length; i < entries.length; i++) {
+                entries[i] = EMPTY;
+            }
+            this.entries = entries;
+        }
+        Object[] values = entries[index];
+        if (id >= values.length) {
+            Object[] grown = new Object[Math.max(id + 1, values.length + (values.length >> 1))];
+            System.arraycopy(values, 0, grown, 0, values.length);
+            entries[index] = values = grown;
+        }
+        values[id] = value;
+    }
+
+    /**
+     * @param index Mapping index
+     * @param id    Protocol id
+     * @return The value registered with that index and id, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    @Nullable
+    public T get(int index, int id) {
+        Object[][] entries = this.entries;
+        if (index < 0 || index >= entries.length) {
+            return null;
+        }
+        Object[] values = entries[index];
+        if (id < 0 || id >= values.length) {
+            return null;
+        }
+        return (T) values[id];
+    }
+
+    public T getOrDefault(int index, int id, T defaultValue) {
+        T value = get(index, id);
+        return value != null ? value : defaultValue;
+    }
+}
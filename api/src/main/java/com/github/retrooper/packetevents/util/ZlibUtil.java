@@ -0,0 +1,114 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package com.github.retrooper.packetevents.util;
+
+import com.github.retrooper.packetevents.PacketEvents;
+
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Compresses and decompresses zlib payloads, like the chunk data of 1.7.
+ * Every {@link Inflater} and {@link Deflater} holds native memory until it is ended or finalized,
+ * so instead of creating one per packet, each thread (and with that each event loop) reuses its own.
+ */
+public final class ZlibUtil {
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(Inflater::new);
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(Deflater::new);
+
+    private ZlibUtil() {
+    }
+
+    /**
+     * Decompress a zlib payload.
+     *
+     * @param input  Array containing the compressed data
+     * @param offset Start of the compressed data
+     * @param length Length of the compressed data
+     * @param output Array to decompress into, decompression stops once it is full
+     * @return Amount of bytes written to the output
+     * @throws DataFormatException If the compressed data is invalid
+     */
+    public static int inflate(byte[] input, int offset, int length, byte[] output) throws DataFormatException {
+        Inflater inflater = INFLATER.get();
+        try {
+            inflater.setInput(input, offset, length);
+            return inflater.inflate(output);
+        } finally {
+            inflater.reset();
+        }
+    }
+
+    /**
+     * Compress data with the compression level from the settings.
+     *
+     * @param input  Array containing the data
+     * @param offset Start of the data
+     * @param length Length of the data
+     * @param output Array to compress into, with at least {@link #getMaxDeflatedLength(int)} bytes
+     * @return Amount of bytes written to the output
+     * @see com.github.retrooper.packetevents.settings.PacketEventsSettings#compressionLevel(int)
+     */
+    public static int deflate(byte[] input, int offset, int length, byte[] output) {
+        return deflate(input, offset, length, output, PacketEvents.getAPI().getSettings().getCompressionLevel());
+    }
+
+    /**
+     * Compress data.
+     *
+     * @param input  Array containing the data
+     * @param offset Start of the data
+     * @param length Length of the data
+     * @param output Array to compress into, with at least {@link #getMaxDeflatedLength(int)} bytes
+     * @param level  Compression level from 0 to 9, or -1 for zlib's default
+     * @return Amount of bytes written to the output
+     */
+    public static int deflate(byte[] input, int offset, int length, byte[] output, int level) {
+        Deflater deflater = DEFLATER.get();
+        try {
+            deflater.setLevel(level);
+            deflater.setInput(input, offset, length);
+            deflater.finish();
+            int deflatedLength = 0;
+            // A call can return early, for example after applying a changed level
+            while (!deflater.finished()) {
+                if (deflatedLength == output.length) {
+                    throw new IllegalArgumentException("Output of " + output.length
+                            + " bytes is too small for the compressed data");
+                }
+                deflatedLength += deflater.deflate(output, deflatedLength, output.length - deflatedLength);
+            }
+            return deflatedLength;
+        } finally {
+            deflater.reset();
+        }
+    }
+
+    /**
+     * Get the maximum length data can have after compressing it, even if it can't be compressed at all.
+     *
+     * @param length Length of the data
+     * @return Maximum compressed length
+     */
+    public static int getMaxDeflatedLength(int length) {
+        // zlib's conservative deflateBound, plus the zlib header and checksum
+        return length + ((length + 7) >> 3) + ((length + 63) >> 6) + 5 + 6;
+    }
+}
@@ -25,6 +25,7 @@ import com.github.retrooper.packetevents.event.ProtocolPacketEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
 import com.github.retrooper.packetevents.manager.server.VersionComparison;
 import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
 import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.chat.*;
@@ -41,6 +42,7 @@ import com.github.retrooper.packetevents.protocol.item.type.ItemType;
 import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
 import com.github.retrooper.packetevents.protocol.nbt.NBT;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
 import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
 import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
@@ -65,10 +67,10 @@ import org.jetbrains.annotations.ApiStatus.Experimental;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.nio.charset.StandardCharsets;
 import java.security.PublicKey;
 import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
@@ -86,6 +88,9 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
 
     private static final int MODERN_MESSAGE_LENGTH = 262144;
     private static final int LEGACY_MESSAGE_LENGTH = 32767;
+    // Decoded identifiers by their string form, resource locations are immutable so they can be shared
+    private static final int MAX_IDENTIFIER_CACHE_SIZE = 1024;
+    private static final Map<String, ResourceLocation> IDENTIFIER_CACHE = new ConcurrentHashMap<>();
 
     public PacketWrapper(ClientVersion clientVersion, ServerVersion serverVersion, int packetID) {
         if (packetID == -1) {
@@ -223,6 +228,38 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         event.setLastUsedWrapper(this);
     }
 
+    /**
+     * Whether heavy fields of the packet we are reading should be kept as raw bytes,
+     * and only be decoded with {@link #readLazily(byte[], ServerVersion, Reader)} once they are accessed.
+     *
+     * @return Whether lazy decoding is enabled
+     */
+    protected boolean isLazyDecoding() {
+        return PacketEvents.getAPI().getSettings().isLazyDecodingEnabled();
+    }
+
+    /**
+     * Decode bytes we skipped in {@link #read()}.
+     * The original buffer may have been released or rewritten by now, so the bytes must have been copied.
+     *
+     * @param data          Copied bytes
+     * @param serverVersion Server version the bytes were read with
+     * @param reader        Reads the field
+     * @return The decoded field
+     */
+    protected <R> R readLazily(byte[] data, ServerVersion serverVersion, Reader<R> reader) {
+        Object buffer = this.buffer;
+        ServerVersion currentVersion = this.serverVersion;
+        this.buffer = UnpooledByteBufAllocationHelper.wrappedBuffer(data);
+        this.serverVersion = serverVersion;
+        try {
+            return reader.apply(this);
+        } finally {
+            this.buffer = buffer;
+            this.serverVersion = currentVersion;
+        }
+    }
+
     public ClientVersion getClientVersion() {
         return clientVersion;
     }
@@ -320,29 +357,11 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public int readVarInt() {
-        int value = 0;
-        int length = 0;
-        byte currentByte;
-        do {
-            currentByte = readByte();
-            value |= (currentByte & 0x7F) << (length * 7);
-            length++;
-            if (length > 5) {
-                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
-            }
-        } while ((currentByte & 0x80) == 0x80);
-        return value;
+        return ByteBufHelper.readVarInt(buffer);
     }
 
     public void writeVarInt(int value) {
-        while (true) {
-            if ((value & ~0x7F) == 0) {
-                writeByte(value);
-                break;
-            }
-            writeByte((value & 0x7F) | 0x80);
-            value >>>= 7;
-        }
+        ByteBufHelper.writeVarInt(buffer, value);
     }
 
     public <K, V> Map<K, V> readMap(Reader<K> keyFunction, Reader<V> valueFunction) {
@@ -394,7 +413,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         ItemType type = ItemTypes.getById(serverVersion.toClientVersion(), typeID);
         int amount = readByte();
         int legacyData = v1_13_2 ? -1 : readShort();
-        NBTCompound nbt = readNBT();
+        NBTCompound nbt = readLazyNBT();
         return ItemStack.builder()
                 .type(type)
                 .amount(amount)
@@ -439,6 +458,16 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         return NBTCodec.readNBTFromBuffer(buffer, serverVersion);
     }
 
+    /**
+     * Read a compound which is usually only forwarded, like the NBT of items and block entities.
+     * If lazy decoding is enabled, it is only parsed once it is accessed, see {@link LazyNBTCompound}.
+     *
+     * @return The read compound
+     */
+    public NBTCompound readLazyNBT() {
+        return (NBTCompound) NBTCodec.readNBTFromBuffer(buffer, serverVersion, isLazyDecoding());
+    }
+
     public void writeNBT(NBTCompound nbt) {
         this.writeNBTRaw(nbt);
     }
@@ -459,8 +488,7 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         } else if (j < 0) {
             throw new RuntimeException("The received encoded string buffer length is less than zero! Weird string!");
         } else {
-            String s = ByteBufHelper.toString(buffer, ByteBufHelper.readerIndex(buffer), j, StandardCharsets.UTF_8);
-            ByteBufHelper.readerIndex(buffer, ByteBufHelper.readerIndex(buffer) + j);
+            String s = ByteBufHelper.readUTF8(buffer, j);
             if (s.length() > maxLen) {
                 throw new RuntimeException("The received string length is longer than maximum allowed (" + j + " > " + maxLen + ")");
             } else {
@@ -487,12 +515,12 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
         if (substr) {
             s = StringUtil.maximizeLength(s, maxLen);
         }
-        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
-        if (!substr && bytes.length > maxLen) {
-            throw new IllegalStateException("String too big (was " + bytes.length + " bytes encoded, max " + maxLen + ")");
+        int length = StringUtil.getUTF8Length(s);
+        if (!substr && length > maxLen) {
+            throw new IllegalStateException("String too big (was " + length + " bytes encoded, max " + maxLen + ")");
         } else {
-            writeVarInt(bytes.length);
-            ByteBufHelper.writeBytes(buffer, bytes);
+            writeVarInt(length);
+            ByteBufHelper.writeUTF8(buffer, s, length);
         }
     }
 
@@ -542,7 +570,18 @@ public class PacketWrapper<T extends PacketWrapper<T>> {
     }
 
     public ResourceLocation readIdentifier(int maxLen) {
-        return new ResourceLocation(readString(maxLen));
+        String location = readString(maxLen);
+        ResourceLocation identifier = IDENTIFIER_CACHE.get(location);
+        if (identifier == null) {
+            identifier = new ResourceLocation(location);
+            // Identifiers mostly come from a small set of registry keys, but nothing stops a client from sending
+            // random ones, so start over once the cache is full instead of letting it grow without bounds
+            if (IDENTIFIER_CACHE.size() >= MAX_IDENTIFIER_CACHE_SIZE) {
+                IDENTIFIER_CACHE.clear();
+            }
+            IDENTIFIER_CACHE.put(location, identifier);
+        }
+        return identifier;
     }
 
     public ResourceLocation readIdentifier() {
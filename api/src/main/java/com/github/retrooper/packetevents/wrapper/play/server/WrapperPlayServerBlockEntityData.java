@@ -55,7 +55,7 @@ public class WrapperPlayServerBlockEntityData extends PacketWrapper<WrapperPlayS
         } else {
             this.type = readUnsignedByte();
         }
-        this.nbt = readNBT();
+        this.nbt = readLazyNBT();
     }
 
     @Override
@@ -20,8 +20,11 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
 import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamOutput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
 import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
@@ -34,15 +37,12 @@ import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_8.Chunk_v1
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.ChunkReader;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.*;
+import com.github.retrooper.packetevents.util.ZlibUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerChunkData> {
     private static ChunkReader_v1_7 chunkReader_v1_7 = new ChunkReader_v1_7();
@@ -50,8 +50,15 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
     private static ChunkReader_v1_9 chunkReader_v1_9 = new ChunkReader_v1_9();
     private static ChunkReader_v1_16 chunkReader_v1_16 = new ChunkReader_v1_16();
     private static ChunkReader_v1_18 chunkReader_v1_18 = new ChunkReader_v1_18();
+    // Bytes reserved for the length of the chunk data, which is only known once it was written
+    private static final int DATA_LENGTH_BYTES = 3;
 
     private Column column;
+    // Everything after the chunk coordinates, if we haven't decoded it yet, see PacketEventsSettings#lazyDecoding
+    private int chunkX;
+    private int chunkZ;
+    private byte[] rawData;
+    private ServerVersion rawVersion;
 
     //TODO Make accessible??
     private boolean ignoreOldData;
@@ -94,6 +101,30 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         return BitSet.valueOf(readBitSetLongs());
     }
 
+    // Fill in the length of the data which was written after the bytes reserved at the given index.
+    // The length is a var int padded to three bytes, which every var int decoder accepts,
+    // and which covers the 2MiB the client allows for the chunk data.
+    private void writeDataLength(int lengthIndex) {
+        int writerIndex = ByteBufHelper.writerIndex(buffer);
+        int length = writerIndex - lengthIndex - DATA_LENGTH_BYTES;
+        if (length >= 1 << (7 * DATA_LENGTH_BYTES)) {
+            // Too long for the reserved bytes, so move the data behind a regular var int
+            Object data = ByteBufHelper.duplicate(buffer);
+            ByteBufHelper.readerIndex(data, lengthIndex + DATA_LENGTH_BYTES);
+            data = ByteBufHelper.copy(data);
+            ByteBufHelper.writerIndex(buffer, lengthIndex);
+            writeVarInt(length);
+            ByteBufHelper.writeBytes(buffer, data);
+            ByteBufHelper.release(data);
+            return;
+        }
+        ByteBufHelper.writerIndex(buffer, lengthIndex);
+        writeByte(length & 0x7F | 0x80);
+        writeByte((length >>> 7) & 0x7F | 0x80);
+        writeByte(length >>> 14);
+        ByteBufHelper.writerIndex(buffer, writerIndex);
+    }
+
     private void writeChunkMask(BitSet chunkMask) {
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_17)) {
             //Write primary bit mask
@@ -109,9 +140,27 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void read() {
-        int chunkX = readInt();
-        int chunkZ = readInt();
+        chunkX = readInt();
+        chunkZ = readInt();
+        if (isLazyDecoding()) {
+            rawData = readRemainingBytes();
+            rawVersion = serverVersion;
+        } else {
+            readColumn();
+        }
+    }
+
+    private void readLazyData() {
+        if (rawData != null) {
+            readLazily(rawData, rawVersion, wrapper -> {
+                readColumn();
+                return null;
+            });
+            rawData = null;
+        }
+    }
 
+    private void readColumn() {
         // All chunks are full chunks in 1.17 and above to avoid issues with arbitrary world height
         boolean checkFullChunk = serverVersion.isOlderThan(ServerVersion.V_1_17);
         // Don't read a boolean if there isn't a boolean to be read
@@ -170,15 +219,23 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             }
         }
 
-        byte[] data = readByteArray();
-        data = deflate(data, chunkMask, fullChunk);
+        byte[] data;
+        NetStreamInput dataIn;
+        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
+            // Read the sections straight from the packet, the slice makes sure we don't read past them
+            data = null;
+            dataIn = new ByteBufNetStreamInput(ByteBufHelper.readSlice(buffer, readVarInt()));
+        } else {
+            // 1.7/1.8 don't use the NetStreamInput, and 1.7 prefixes the compressed data with an int
+            byte[] compressed = serverVersion.isOlderThanOrEquals(ServerVersion.V_1_7_10) ? readBytes(readInt()) : readByteArray();
+            data = deflate(compressed, chunkMask, fullChunk);
+            dataIn = null;
+        }
 
         boolean hasBlocklight = (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThan(ServerVersion.V_1_14))
                 && !serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8);
         boolean checkForSky = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_16) || serverVersion.isOlderThanOrEquals(ServerVersion.V_1_8_8) || user.getDimension().getId() == 0;
 
-        // 1.7/1.8 don't use this NetStreamInput
-        NetStreamInput dataIn = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9) ? new NetStreamInput(new ByteArrayInputStream(data)) : null;
         BaseChunk[] chunks = getChunkReader().read(user.getDimension(), chunkMask, secondaryChunkMask, fullChunk, hasBlocklight, checkForSky, chunkSize, data, dataIn);
 
         if (hasBiomeData && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
@@ -205,35 +262,16 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
             for (int i = 0; i < tileEntities.length; i++) {
-                tileEntities[i] = new TileEntity(readByte(), readShort(), readVarInt(), readNBT());
+                tileEntities[i] = new TileEntity(readByte(), readShort(), readVarInt(), readLazyNBT());
             }
         } else {
             for (int i = 0; i < tileEntities.length; i++) {
-                tileEntities[i] = new TileEntity(readNBT());
+                tileEntities[i] = new TileEntity(readLazyNBT());
             }
         }
 
         if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_18)) {
-            if (serverVersion.isOlderThanOrEquals(ServerVersion.V_1_19_4)) {
-                trustEdges = readBoolean();
-            }
-
-            skyLightMask = readChunkMask();
-            blockLightMask = readChunkMask();
-            emptySkyLightMask = readChunkMask();
-            emptyBlockLightMask = readChunkMask();
-
-            skyLightCount = readVarInt();
-            this.skyLightArray = new byte[skyLightCount][];
-            for (int x = 0; x < skyLightCount; x++) {
-                skyLightArray[x] = readByteArray();
-            }
-
-            blockLightCount = readVarInt();
-            this.blockLightArray = new byte[blockLightCount][];
-            for (int x = 0; x < blockLightCount; x++) {
-                blockLightArray[x] = readByteArray();
-            }
+            readLightData();
         }
 
         if (hasBiomeData) {
@@ -259,6 +297,55 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         }
     }
 
+    // 1.18 and above send the light data after the column
+    private void readLightData() {
+        if (serverVersion.isOlderThanOrEquals(ServerVersion.V_1_19_4)) {
+            trustEdges = readBoolean();
+        }
+
+        skyLightMask = readChunkMask();
+        blockLightMask = readChunkMask();
+        emptySkyLightMask = readChunkMask();
+        emptyBlockLightMask = readChunkMask();
+
+        skyLightCount = readVarInt();
+        this.skyLightArray = new byte[skyLightCount][];
+        for (int x = 0; x < skyLightCount; x++) {
+            skyLightArray[x] = readByteArray();
+        }
+
+        blockLightCount = readVarInt();
+        this.blockLightArray = new byte[blockLightCount][];
+        for (int x = 0; x < blockLightCount; x++) {
+            blockLightArray[x] = readByteArray();
+        }
+    }
+
+    /**
+     * Read only the data which isn't part of the column, moving past the column without decoding it.
+     * Used when the column is replaced before it was ever decoded.
+     */
+    private void readNonColumnData() {
+        if (serverVersion.isOlderThan(ServerVersion.V_1_17)) {
+            readBoolean(); // Full chunk
+        }
+        if (serverVersion == ServerVersion.V_1_16 || serverVersion == ServerVersion.V_1_16_1) {
+            ignoreOldData = readBoolean();
+        }
+        if (serverVersion.isOlderThan(ServerVersion.V_1_18)) {
+            return;
+        }
+        readLazyNBT(); // Height maps
+        ByteBufHelper.skipBytes(buffer, readVarInt()); // Sections
+        int tileEntityCount = readVarInt();
+        for (int i = 0; i < tileEntityCount; i++) {
+            ByteBufHelper.skipBytes(buffer, 3); // Packed xz and y
+            readVarInt();
+            readLazyNBT();
+        }
+        readLightData();
+    }
+
     private byte[] deflate(byte[] toDeflate, BitSet mask, boolean fullChunk) {
         // The data is already decompressed! (step only needed for 1.7.x)
         if (serverVersion.isNewerThan(ServerVersion.V_1_7_10)) {
@@ -279,15 +366,10 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
         byte[] data = new byte[len];
         // Inflate chunk data.
-        Inflater inflater = new Inflater();
-        inflater.setInput(toDeflate, 0, toDeflate.length);
-
         try {
-            inflater.inflate(data);
+            ZlibUtil.inflate(toDeflate, 0, toDeflate.length, data);
         } catch (DataFormatException e) {
             e.printStackTrace();
-        } finally {
-            inflater.end();
         }
 
         return data;
@@ -295,6 +377,15 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void write() {
+        if (rawData != null && rawVersion == serverVersion) {
+            // Nobody looked at the chunk, so it's still the same
+            writeInt(chunkX);
+            writeInt(chunkZ);
+            writeBytes(rawData);
+            return;
+        }
+        readLazyData();
+
         writeInt(column.getX());
         writeInt(column.getZ());
 
@@ -319,63 +410,31 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         //TODO Decompress data on 1.7.10
         //https://github.com/retrooper/packetevents/blob/794ad6b042c1c89a931d322f4f83317b573e891a/src/main/java/io/github/retrooper/packetevents/wrapper/play/server/WrapperPlayServerChunkData.java
 
-        ByteArrayOutputStream dataBytes = new ByteArrayOutputStream();
-        NetStreamOutput dataOut = new NetStreamOutput(dataBytes);
-
-        BitSet chunkMask = new BitSet();
         BaseChunk[] chunks = column.getChunks();
 
-        if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_9)) {
-            for (int index = 0; index < chunks.length; index++) {
-                BaseChunk chunk = chunks[index];
-                if (v1_18) {
-                    Chunk_v1_18.write(dataOut, (Chunk_v1_18) chunk);
-                } else if (v1_9 && chunk != null) {
-                    chunkMask.set(index);
-                    Chunk_v1_9.write(dataOut, (Chunk_v1_9) chunk);
-                }
-            }
-        } else if (v1_8) {
+        if (v1_8 && !v1_9) {
             NetworkChunkData data = ChunkReader_v1_8.chunksToData((Chunk_v1_8[]) chunks, column.getBiomeDataBytes());
             writeShort(data.getMask());
             writeByteArray(data.getData());
             return;
-        } else {
+        } else if (!v1_8) {
             NetworkChunkData data = ChunkReader_v1_7.chunksToData((Chunk_v1_7[]) chunks, column.getBiomeDataBytes());
-            Deflater deflater = new Deflater(-1);
-
-            byte deflated[] = new byte[data.getData().length];
-            int len = deflated.length;
-            try {
-                deflater.setInput(data.getData(), 0, data.getData().length);
-                deflater.finish();
-                len = deflater.deflate(deflated);
-            } finally {
-                deflater.end();
-            }
+            byte[] deflated = new byte[ZlibUtil.getMaxDeflatedLength(data.getData().length)];
+            int len = ZlibUtil.deflate(data.getData(), 0, data.getData().length, deflated);
             writeShort(data.getMask());
             writeShort(data.getExtendedChunkMask());
             writeInt(len);
-            for (int i = 0; i < len; i++) {
-                dataOut.writeByte(deflated[i]);
-            }
+            ByteBufHelper.writeBytes(buffer, deflated, 0, len);
             return;
         }
 
-        if (column.isFullChunk() && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
-            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) {
-                for (int i : column.getBiomeDataInts()) {
-                    dataOut.writeInt(i);
-                }
-            } else {
-                for (byte i : column.getBiomeDataBytes()) {
-                    dataOut.writeByte(i);
+        if (!v1_18) {
+            BitSet chunkMask = new BitSet();
+            for (int index = 0; index < chunks.length; index++) {
+                if (chunks[index] != null) {
+                    chunkMask.set(index);
                 }
             }
-            hasWrittenBiomeData = true;
-        }
-
-        if (!v1_18) {
             writeChunkMask(chunkMask);
         }
 
@@ -406,8 +465,35 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
             hasWrittenBiomeData = true;
         }
 
-        byte[] data = dataBytes.toByteArray();
-        writeByteArray(data);
+        // Write the sections straight into the packet, and fill in their length afterwards
+        int lengthIndex = ByteBufHelper.writerIndex(buffer);
+        for (int i = 0; i < DATA_LENGTH_BYTES; i++) {
+            writeByte(0);
+        }
+        NetStreamOutput dataOut = new ByteBufNetStreamOutput(buffer);
+
+        for (BaseChunk chunk : chunks) {
+            if (v1_18) {
+                Chunk_v1_18.write(dataOut, (Chunk_v1_18) chunk);
+            } else if (chunk != null) {
+                Chunk_v1_9.write(dataOut, (Chunk_v1_9) chunk);
+            }
+        }
+
+        if (column.isFullChunk() && serverVersion.isOlderThan(ServerVersion.V_1_15)) {
+            if (serverVersion.isNewerThanOrEquals(ServerVersion.V_1_13)) {
+                for (int i : column.getBiomeDataInts()) {
+                    dataOut.writeInt(i);
+                }
+            } else {
+                for (byte i : column.getBiomeDataBytes()) {
+                    dataOut.writeByte(i);
+                }
+            }
+            hasWrittenBiomeData = true;
+        }
+
+        writeDataLength(lengthIndex);
 
         if (column.hasBiomeData() && !hasWrittenBiomeData) {
             byte[] biomeDataBytes = new byte[256];
@@ -458,6 +544,10 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
 
     @Override
     public void copy(WrapperPlayServerChunkData wrapper) {
+        this.chunkX = wrapper.chunkX;
+        this.chunkZ = wrapper.chunkZ;
+        this.rawData = wrapper.rawData;
+        this.rawVersion = wrapper.rawVersion;
         this.column = wrapper.column;
         this.ignoreOldData = wrapper.ignoreOldData;
         this.trustEdges = wrapper.trustEdges;
@@ -471,11 +561,28 @@ public class WrapperPlayServerChunkData extends PacketWrapper<WrapperPlayServerC
         this.blockLightArray = wrapper.blockLightArray;
     }
 
+    public int getChunkX() {
+        return column != null ? column.getX() : chunkX;
+    }
+
+    public int getChunkZ() {
+        return column != null ? column.getZ() : chunkZ;
+    }
+
     public Column getColumn() {
+        readLazyData();
         return column;
     }
 
     public void setColumn(Column column) {
+        // Keep the light data, but the old column doesn't need to be decoded
+        if (rawData != null) {
+            readLazily(rawData, rawVersion, wrapper -> {
+                readNonColumnData();
+                return null;
+            });
+            rawData = null;
+        }
         this.column = column;
     }
 
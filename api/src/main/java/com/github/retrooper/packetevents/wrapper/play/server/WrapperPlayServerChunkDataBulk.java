@@ -20,20 +20,20 @@ package com.github.retrooper.packetevents.wrapper.play.server;
 
 import com.github.retrooper.packetevents.event.PacketSendEvent;
 import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
 import com.github.retrooper.packetevents.protocol.world.chunk.NetworkChunkData;
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_7.Chunk_v1_7;
 import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_8.Chunk_v1_8;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_7;
 import com.github.retrooper.packetevents.protocol.world.chunk.reader.impl.ChunkReader_v1_8;
+import com.github.retrooper.packetevents.util.ZlibUtil;
 import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.zip.DataFormatException;
-import java.util.zip.Deflater;
-import java.util.zip.Inflater;
 
 // Credit to MCProtocolLib for this wrapper
 public class WrapperPlayServerChunkDataBulk extends PacketWrapper<WrapperPlayServerChunkDataBulk> {
@@ -92,15 +92,11 @@ public class WrapperPlayServerChunkDataBulk extends PacketWrapper<WrapperPlaySer
         byte[] deflatedBytes = readBytes(deflatedLength);
         // Inflate chunk data.
         byte[] inflated = new byte[196864 * columns];
-        Inflater inflater = new Inflater();
-        inflater.setInput(deflatedBytes, 0, deflatedLength);
         try {
-            inflater.inflate(inflated);
+            ZlibUtil.inflate(deflatedBytes, 0, deflatedLength, inflated);
         } catch (DataFormatException e) {
             new IOException("Bad compressed data format").printStackTrace();
             return;
-        } finally {
-            inflater.end();
         }
 
         this.x = new int[columns];
@@ -210,24 +206,14 @@ public class WrapperPlayServerChunkDataBulk extends PacketWrapper<WrapperPlaySer
         }
 
         // Deflate chunk data.
-        Deflater deflater = new Deflater(-1);
-        byte[] deflatedData = new byte[pos];
-        int deflatedLength = pos;
-        try {
-            deflater.setInput(bytes, 0, pos);
-            deflater.finish();
-            deflatedLength = deflater.deflate(deflatedData);
-        } finally {
-            deflater.end();
-        }
+        byte[] deflatedData = new byte[ZlibUtil.getMaxDeflatedLength(pos)];
+        int deflatedLength = ZlibUtil.deflate(bytes, 0, pos, deflatedData);
 
         // Write data to the network.
         writeShort(this.chunks.length);
         writeInt(deflatedLength);
         writeBoolean(skylight);
-        for (int i = 0; i < deflatedLength; i++) {
-            writeByte(deflatedData[i]);
-        }
+        ByteBufHelper.writeBytes(buffer, deflatedData, 0, deflatedLength);
 
         for (int count = 0; count < this.chunks.length; ++count) {
             writeInt(this.x[count]);
@@ -31,6 +31,9 @@ import java.util.List;
 public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlayServerEntityMetadata> {
     private int entityID;
     private List<EntityData> entityMetadata;
+    // Entity metadata we haven't decoded yet, see PacketEventsSettings#lazyDecoding
+    private byte[] rawEntityMetadata;
+    private ServerVersion rawVersion;
 
     public WrapperPlayServerEntityMetadata(PacketSendEvent event) {
         super(event);
@@ -49,7 +52,12 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     @Override
     public void read() {
         entityID = serverVersion.isNewerThanOrEquals(ServerVersion.V_1_8) ? readVarInt() : readInt();
-        entityMetadata = readEntityMetadata();
+        if (isLazyDecoding()) {
+            rawEntityMetadata = readRemainingBytes();
+            rawVersion = serverVersion;
+        } else {
+            entityMetadata = readEntityMetadata();
+        }
     }
 
     @Override
@@ -59,13 +67,20 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
         } else {
             writeInt(entityID);
         }
-        writeEntityMetadata(entityMetadata);
+        if (rawEntityMetadata != null && rawVersion == serverVersion) {
+            // Nobody looked at the metadata, so it's still the same
+            writeBytes(rawEntityMetadata);
+        } else {
+            writeEntityMetadata(getEntityMetadata());
+        }
     }
 
     @Override
     public void copy(WrapperPlayServerEntityMetadata wrapper) {
         entityID = wrapper.entityID;
         entityMetadata = wrapper.entityMetadata;
+        rawEntityMetadata = wrapper.rawEntityMetadata;
+        rawVersion = wrapper.rawVersion;
     }
 
     public int getEntityId() {
@@ -77,14 +92,19 @@ public class WrapperPlayServerEntityMetadata extends PacketWrapper<WrapperPlaySe
     }
 
     public List<EntityData> getEntityMetadata() {
+        if (rawEntityMetadata != null) {
+            entityMetadata = readLazily(rawEntityMetadata, rawVersion, PacketWrapper::readEntityMetadata);
+            rawEntityMetadata = null;
+        }
         return entityMetadata;
     }
 
     public void setEntityMetadata(List<EntityData> entityMetadata) {
         this.entityMetadata = entityMetadata;
+        this.rawEntityMetadata = null;
     }
 
     public void setEntityMetadata(EntityMetadataProvider metadata) {
-        this.entityMetadata = metadata.entityData(serverVersion.toClientVersion());
+        setEntityMetadata(metadata.entityData(serverVersion.toClientVersion()));
     }
 }
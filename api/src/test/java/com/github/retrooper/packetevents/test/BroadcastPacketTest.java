@@ -0,0 +1,172 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.manager.protocol.ProtocolManager;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.ProtocolVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestUtils;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBlockChange;
+import io.github.retrooper.packetevents.impl.netty.manager.protocol.ProtocolManagerAbstract;
+import io.netty.buffer.AbstractByteBufAllocator;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BroadcastPacketTest extends BaseDummyAPITest {
+
+    private static final Vector3i BLOCK = new Vector3i(1, 64, -3);
+
+    // Keeps every buffer it allocates, so we can check that all of them were released
+    private final List<ByteBuf> allocated = new ArrayList<>();
+    private final ByteBufAllocator allocator = new AbstractByteBufAllocator(false) {
+        @Override
+        protected ByteBuf newHeapBuffer(int initialCapacity, int maxCapacity) {
+            ByteBuf buffer = Unpooled.buffer(initialCapacity, maxCapacity);
+            allocated.add(buffer);
+            return buffer;
+        }
+
+        @Override
+        protected ByteBuf newDirectBuffer(int initialCapacity, int maxCapacity) {
+            return newHeapBuffer(initialCapacity, maxCapacity);
+        }
+
+        @Override
+        public boolean isDirectBufferPooled() {
+            return false;
+        }
+    };
+
+    // Packets passed to the protocol manager, per channel
+    private final Map<Object, List<ByteBuf>> sent = new HashMap<>();
+    private boolean failSends;
+
+    private final ProtocolManager protocolManager = new ProtocolManagerAbstract() {
+        @Override
+        public ProtocolVersion getPlatformVersion() {
+            return ProtocolVersion.UNKNOWN;
+        }
+
+        @Override
+        public void sendPacket(Object channel, Object byteBuf) {
+            capture(channel, byteBuf);
+        }
+
+        @Override
+        public void sendPacketSilently(Object channel, Object byteBuf) {
+            capture(channel, byteBuf);
+        }
+    };
+
+    private void capture(Object channel, Object byteBuf) {
+        if (failSends) {
+            ((ByteBuf) byteBuf).release();
+            throw new IllegalStateException("Channel is broken");
+        }
+        sent.computeIfAbsent(channel, c -> new ArrayList<>()).add((ByteBuf) byteBuf);
+    }
+
+    private List<User> createUsers(int count) {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            EmbeddedChannel channel = new EmbeddedChannel();
+            channel.config().setAllocator(allocator);
+            users.add(TestUtils.createUser(channel));
+        }
+        return users;
+    }
+
+    private void assertAllReleased() {
+        for (List<ByteBuf> packets : sent.values()) {
+            for (ByteBuf packet : packets) {
+                packet.release();
+            }
+        }
+        for (ByteBuf buffer : allocated) {
+            assertEquals(0, buffer.refCnt(), "Buffer wasn't released");
+        }
+    }
+
+    @Test
+    @DisplayName("Broadcast sends every user a copy of the packet")
+    public void testBroadcastCopies() {
+        List<User> users = createUsers(3);
+        byte[] expected = TestUtils.encode(new WrapperPlayServerBlockChange(BLOCK, 42));
+        protocolManager.broadcastPacket(users, new WrapperPlayServerBlockChange(BLOCK, 42));
+
+        assertEquals(3, sent.size());
+        for (User user : users) {
+            List<ByteBuf> packets = sent.get(user.getChannel());
+            assertEquals(1, packets.size());
+            assertArrayEquals(expected, ByteBufUtil.getBytes(packets.get(0)));
+        }
+        // A send listener rewriting the packet of one user must not affect the other users
+        ByteBuf first = sent.get(users.get(0).getChannel()).get(0);
+        first.clear().writeByte(0x7F);
+        for (User user : users.subList(1, users.size())) {
+            assertArrayEquals(expected, ByteBufUtil.getBytes(sent.get(user.getChannel()).get(0)));
+        }
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Silent broadcast shares one encoded buffer")
+    public void testSilentBroadcastShares() {
+        List<User> users = createUsers(3);
+        byte[] expected = TestUtils.encode(new WrapperPlayServerBlockChange(BLOCK, 42));
+        allocated.clear();
+        protocolManager.broadcastPacketSilently(users, new WrapperPlayServerBlockChange(BLOCK, 42));
+
+        // Encoded once, and never copied
+        assertEquals(1, allocated.size());
+        for (User user : users) {
+            ByteBuf packet = sent.get(user.getChannel()).get(0);
+            assertArrayEquals(expected, ByteBufUtil.getBytes(packet));
+        }
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Broadcast releases its buffers if sending fails")
+    public void testBroadcastReleasesOnFailure() {
+        List<User> users = createUsers(2);
+        failSends = true;
+        assertThrows(IllegalStateException.class, () -> protocolManager.broadcastPacket(users, new WrapperPlayServerBlockChange(BLOCK, 42)));
+        assertThrows(IllegalStateException.class, () -> protocolManager.broadcastPacketSilently(users, new WrapperPlayServerBlockChange(BLOCK, 42)));
+        assertAllReleased();
+    }
+
+    @Test
+    @DisplayName("Broadcast encodes the packet per connection state")
+    public void testBroadcastGroupsByConnectionState() {
+        List<User> users = createUsers(4);
+        users.get(1).setEncoderState(ConnectionState.CONFIGURATION);
+        users.get(3).setEncoderState(ConnectionState.CONFIGURATION);
+        allocated.clear();
+        protocolManager.broadcastPacketSilently(users, new WrapperPlayServerBlockChange(BLOCK, 42));
+
+        // One encoded buffer per state, shared within the state
+        assertEquals(2, allocated.size());
+        assertEquals(Arrays.asList(true, true), Arrays.asList(
+                sent.get(users.get(0).getChannel()).get(0).unwrap() == sent.get(users.get(2).getChannel()).get(0).unwrap(),
+                sent.get(users.get(1).getChannel()).get(0).unwrap() == sent.get(users.get(3).getChannel()).get(0).unwrap()));
+        assertAllReleased();
+    }
+}
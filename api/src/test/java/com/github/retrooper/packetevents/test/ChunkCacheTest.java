@@ -0,0 +1,237 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.PacketSendEvent;
+import com.github.retrooper.packetevents.manager.InternalPacketListener;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.ChunkCache;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.Palette;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestUtils;
+import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.Vector3i;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerBlockChange;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerMultiBlockChange.EncodedBlock;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkCacheTest extends BaseDummyAPITest {
+
+    private static final int SECTIONS = 16;
+
+    private User user;
+    // Sections below y 64 are filled with block 1, the ones above weren't sent
+    private Column column;
+
+    @BeforeEach
+    public void createColumn() {
+        user = TestUtils.createUser(new EmbeddedChannel());
+        BaseChunk[] chunks = new BaseChunk[SECTIONS];
+        for (int i = 0; i < 4; i++) {
+            chunks[i] = BaseChunk.create();
+            chunks[i].set(0, 0, 0, 1);
+        }
+        column = new Column(0, 0, true, chunks, null);
+    }
+
+    @Test
+    @DisplayName("Block changes only copy the changed sections")
+    public void testSetBlocksCopyOnWrite() {
+        ChunkCache cache = user.getChunkCache();
+        cache.putColumn(column);
+        Column before = cache.getColumn(0, 0);
+
+        cache.setBlocks(new EncodedBlock[]{
+                new EncodedBlock(2, 1, 17, 1),
+                new EncodedBlock(3, 2, 18, 2),
+                // Section which wasn't sent
+                new EncodedBlock(4, 3, 100, 3),
+                // Column which isn't cached
+                new EncodedBlock(5, 40, 20, 40),
+        });
+        Column after = cache.getColumn(0, 0);
+
+        assertNotSame(before, after);
+        for (int i = 0; i < SECTIONS; i++) {
+            if (i == 1 || i == 6) {
+                assertNotSame(before.getChunks()[i], after.getChunks()[i]);
+            } else {
+                assertSame(before.getChunks()[i], after.getChunks()[i], "Section " + i + " was copied");
+            }
+        }
+        assertEquals(2, cache.getBlockId(1, 17, 1));
+        assertEquals(3, cache.getBlockId(2, 18, 2));
+        assertEquals(4, cache.getBlockId(3, 100, 3));
+        assertNull(cache.getColumn(2, 2));
+
+        // The earlier snapshot doesn't see the changes
+        assertEquals(1, before.getChunks()[1].getBlockId(0, 0, 0));
+        assertEquals(1, before.getChunks()[1].getBlockId(1, 1, 1));
+        assertNull(before.getChunks()[6]);
+    }
+
+    @Test
+    @DisplayName("Cached columns are copies")
+    public void testPutColumnCopies() {
+        ChunkCache cache = user.getChunkCache();
+        cache.putColumn(column);
+
+        // Listeners after us may modify the column of the packet
+        column.getChunks()[0].set(0, 0, 0, 9);
+        assertEquals(1, cache.getBlockId(0, 0, 0));
+        assertNotSame(column.getChunks()[0], cache.getColumn(0, 0).getChunks()[0]);
+
+        // Columns which aren't full chunks only replace the sections they contain
+        BaseChunk[] chunks = new BaseChunk[SECTIONS];
+        chunks[2] = BaseChunk.create();
+        chunks[2].set(0, 0, 0, 7);
+        Column partial = new Column(0, 0, false, chunks, null);
+        cache.putColumn(partial);
+        chunks[2].set(0, 0, 0, 8);
+        assertEquals(7, cache.getBlockId(0, 32, 0));
+        assertEquals(1, cache.getBlockId(0, 16, 0));
+    }
+
+    @Test
+    @DisplayName("Cached sections don't keep the bytes they were read from")
+    public void testCachedSectionsDropRawData() throws IOException {
+        Chunk_v1_18 section = TestUtils.readSection(TestUtils.writeSection((Chunk_v1_18) column.getChunks()[0]));
+        BaseChunk[] chunks = new BaseChunk[SECTIONS];
+        chunks[0] = section;
+
+        ChunkCache cache = user.getChunkCache();
+        cache.putColumn(new Column(0, 0, true, chunks, null));
+        assertFalse(section.isModified());
+        assertTrue(((Chunk_v1_18) cache.getColumn(0, 0).getChunks()[0]).isModified());
+        assertEquals(1, cache.getBlockId(0, 0, 0));
+    }
+
+    @Test
+    @DisplayName("Chunks without sections unload them before 1.9")
+    public void testLegacyUnload() {
+        ChunkCache cache = user.getChunkCache();
+        Column empty = new Column(0, 0, true, new BaseChunk[SECTIONS], null);
+
+        cache.updateColumn(column, ServerVersion.V_1_8_8);
+        assertNotNull(cache.getColumn(0, 0));
+        cache.updateColumn(empty, ServerVersion.V_1_8_8);
+        assertNull(cache.getColumn(0, 0));
+
+        // Since 1.9, such a chunk is just empty
+        cache.updateColumn(empty, ServerVersion.V_1_9);
+        assertNotNull(cache.getColumn(0, 0));
+        assertEquals(0, cache.getBlockId(0, 10, 0));
+    }
+
+    @Test
+    @DisplayName("Sections without their own copy still can be changed")
+    public void testCopyFallbacks() {
+        BaseChunk section = BaseChunk.create();
+        // Give air the first palette id, so the section is filled with it
+        section.set(0, 0, 0, 0);
+        section.set(1, 2, 3, 11);
+        BaseChunk external = new BaseChunk() {
+            @Override
+            public int getBlockId(int x, int y, int z) {
+                return section.getBlockId(x, y, z);
+            }
+
+            @Override
+            public void set(int x, int y, int z, int combinedID) {
+                section.set(x, y, z, combinedID);
+            }
+
+            @Override
+            public boolean isEmpty() {
+                return section.isEmpty();
+            }
+        };
+        ChunkCache cache = user.getChunkCache();
+        BaseChunk[] chunks = new BaseChunk[SECTIONS];
+        chunks[0] = external;
+        cache.putColumn(new Column(0, 0, true, chunks, null));
+        cache.setBlock(1, 2, 4, 12);
+        assertEquals(11, cache.getBlockId(1, 2, 3));
+        assertEquals(12, cache.getBlockId(1, 2, 4));
+        assertEquals(0, section.getBlockId(1, 2, 4));
+
+        Palette palette = new Palette() {
+            @Override
+            public int size() {
+                return 3;
+            }
+
+            @Override
+            public int stateToId(int state) {
+                return state < 3 ? state : -1;
+            }
+
+            @Override
+            public int idToState(int id) {
+                return id;
+            }
+        };
+        Palette copy = palette.copy();
+        assertEquals(3, copy.size());
+        assertEquals(2, copy.idToState(2));
+        assertEquals(3, copy.stateToId(3));
+    }
+
+    @Test
+    @DisplayName("Only packets which are sent are cached")
+    public void testListenerUsesFinalPacket() throws Exception {
+        PacketEvents.getAPI().getSettings().chunkCache(true);
+        try {
+            InternalPacketListener listener = new InternalPacketListener();
+            user.getChunkCache().putColumn(column);
+
+            WrapperPlayServerBlockChange cancelledPacket = new WrapperPlayServerBlockChange(new Vector3i(1, 2, 3), 20);
+            cancelledPacket.prepareForSend(user.getChannel(), true, false);
+            PacketSendEvent cancelled = EventCreationUtil.createSendEvent(user.getChannel(), user, null, cancelledPacket.getBuffer(), true);
+            listener.onPacketSend(cancelled);
+            cancelled.setCancelled(true);
+            cancelled.getPostTasks().forEach(Runnable::run);
+            cancelled.cleanUp();
+            assertEquals(1, user.getChunkCache().getBlockId(1, 2, 3));
+
+            WrapperPlayServerBlockChange changedPacket = new WrapperPlayServerBlockChange(new Vector3i(1, 2, 3), 20);
+            changedPacket.prepareForSend(user.getChannel(), true, false);
+            PacketSendEvent changed = EventCreationUtil.createSendEvent(user.getChannel(), user, null, changedPacket.getBuffer(), true);
+            listener.onPacketSend(changed);
+            // A listener after us changes the block
+            new WrapperPlayServerBlockChange(changed).setBlockID(30);
+            changed.getPostTasks().forEach(Runnable::run);
+            changed.cleanUp();
+            assertEquals(30, user.getChunkCache().getBlockId(1, 2, 3));
+
+            WrapperPlayServerBlockChange sentPacket = new WrapperPlayServerBlockChange(new Vector3i(4, 5, 6), 40);
+            sentPacket.prepareForSend(user.getChannel(), true, false);
+            PacketSendEvent sent = EventCreationUtil.createSendEvent(user.getChannel(), user, null, sentPacket.getBuffer(), true);
+            listener.onPacketSend(sent);
+            // Nothing happens until the packet was sent
+            assertEquals(1, user.getChunkCache().getBlockId(4, 5, 6));
+            sent.getPostTasks().forEach(Runnable::run);
+            sent.cleanUp();
+            assertEquals(40, user.getChunkCache().getBlockId(4, 5, 6));
+        } finally {
+            // The API is shared by the tests
+            PacketEvents.getAPI().getSettings().chunkCache(false);
+        }
+    }
+}
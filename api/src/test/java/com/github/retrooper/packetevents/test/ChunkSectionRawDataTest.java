@@ -0,0 +1,109 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_16.Chunk_v1_9;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ChunkSectionRawDataTest extends BaseDummyAPITest {
+
+    // A section which was sent, with a few blocks
+    private byte[] bytes;
+
+    @BeforeEach
+    public void writeSection() throws IOException {
+        Chunk_v1_18 section = new Chunk_v1_18();
+        for (int i = 0; i < 16; i++) {
+            section.set(i, i, 15 - i, i + 1);
+        }
+        bytes = TestUtils.writeSection(section);
+    }
+
+    @Test
+    @DisplayName("Unmodified section is written back byte for byte")
+    public void testRoundTrip() throws IOException {
+        Chunk_v1_18 section = TestUtils.readSection(bytes);
+        assertFalse(section.isModified());
+        // Reading blocks doesn't count as a modification
+        assertEquals(5, section.getBlockId(4, 4, 11));
+        assertFalse(section.isModified());
+        assertArrayEquals(bytes, TestUtils.writeSection(section));
+    }
+
+    @Test
+    @DisplayName("Modified section is encoded again")
+    public void testModificationsEncodeAgain() throws IOException {
+        Chunk_v1_18 section = TestUtils.readSection(bytes);
+        section.set(0, 0, 0, 100);
+        assertTrue(section.isModified());
+        byte[] modified = TestUtils.writeSection(section);
+        assertFalse(Arrays.equals(bytes, modified));
+        assertEquals(100, TestUtils.readSection(modified).getBlockId(0, 0, 0));
+
+        // The palette can be changed through the returned instance
+        Chunk_v1_18 paletteSection = TestUtils.readSection(bytes);
+        DataPalette palette = paletteSection.getChunkData();
+        assertTrue(paletteSection.isModified());
+        palette.set(1, 2, 3, 200);
+        assertEquals(200, TestUtils.readSection(TestUtils.writeSection(paletteSection)).getBlockId(1, 2, 3));
+
+        Chunk_v1_18 biomeSection = TestUtils.readSection(bytes);
+        biomeSection.getBiomeData();
+        assertTrue(biomeSection.isModified());
+        // Nothing was changed, so encoding again gives the same bytes
+        assertArrayEquals(bytes, TestUtils.writeSection(biomeSection));
+    }
+
+    @Test
+    @DisplayName("Copies keep the raw bytes until they are modified")
+    public void testCopy() throws IOException {
+        Chunk_v1_18 section = TestUtils.readSection(bytes);
+
+        int original = section.getBlockId(15, 15, 15);
+        Chunk_v1_18 copy = section.copy();
+        assertFalse(copy.isModified());
+        assertArrayEquals(bytes, TestUtils.writeSection(copy));
+
+        copy.set(15, 15, 15, 300);
+        assertTrue(copy.isModified());
+        assertEquals(300, TestUtils.readSection(TestUtils.writeSection(copy)).getBlockId(15, 15, 15));
+        // The original still has its own palette and raw bytes
+        assertFalse(section.isModified());
+        assertEquals(original, section.getBlockId(15, 15, 15));
+        assertArrayEquals(bytes, TestUtils.writeSection(section));
+    }
+
+    @Test
+    @DisplayName("Legacy section is written back byte for byte")
+    public void testLegacyRoundTrip() throws IOException {
+        Chunk_v1_9 created = new Chunk_v1_9(0, DataPalette.createForChunk());
+        created.set(3, 4, 5, 42);
+        byte[] legacyBytes = TestUtils.write(buffer -> Chunk_v1_9.write(new ByteBufNetStreamOutput(buffer), created));
+
+        Chunk_v1_9 section = new Chunk_v1_9(new ByteBufNetStreamInput(UnpooledByteBufAllocationHelper.wrappedBuffer(legacyBytes)), false, false);
+        assertFalse(section.isModified());
+        assertArrayEquals(legacyBytes, TestUtils.write(buffer -> Chunk_v1_9.write(new ByteBufNetStreamOutput(buffer), section)));
+
+        Chunk_v1_9 copy = section.copy();
+        copy.set(3, 4, 5, 0);
+        assertTrue(copy.isModified());
+        assertFalse(section.isModified());
+        assertEquals(42, section.getBlockId(3, 4, 5));
+        assertArrayEquals(legacyBytes, TestUtils.write(buffer -> Chunk_v1_9.write(new ByteBufNetStreamOutput(buffer), section)));
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.manager.InternalPacketListener;
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestUtils;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class InternalPacketListenerTest extends BaseDummyAPITest {
+
+    @Test
+    @DisplayName("The internal listener only listens to the packets it handles")
+    public void testPacketTypes() {
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        try {
+            eventManager.registerListener(new InternalPacketListener());
+            assertTrue(eventManager.hasListeners(PacketType.Play.Server.JOIN_GAME));
+            assertTrue(eventManager.hasListeners(PacketType.Login.Server.LOGIN_SUCCESS));
+            assertFalse(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA));
+            assertFalse(eventManager.hasListeners(PacketType.Play.Client.PLAYER_POSITION));
+            eventManager.unregisterAllListeners();
+
+            PacketEvents.getAPI().getSettings().chunkCache(true);
+            eventManager.registerListener(new InternalPacketListener());
+            assertTrue(eventManager.hasListeners(PacketType.Play.Server.CHUNK_DATA));
+            assertTrue(eventManager.hasListeners(PacketType.Play.Server.BLOCK_CHANGE));
+            assertFalse(eventManager.hasListeners(PacketType.Play.Client.PLAYER_POSITION));
+        } finally {
+            // The API is shared by the tests
+            eventManager.unregisterAllListeners();
+            PacketEvents.getAPI().getSettings().chunkCache(false);
+        }
+    }
+
+    @Test
+    @DisplayName("Packets nobody listens to are detected from their id")
+    public void testHasListeners() {
+        EventManager eventManager = PacketEvents.getAPI().getEventManager();
+        eventManager.registerListener(new InternalPacketListener());
+        User user = TestUtils.createUser(null);
+
+        Object position = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeVarInt(position, PacketType.Play.Client.PLAYER_POSITION.getId(ClientVersion.getLatest()));
+        assertFalse(PacketEventsImplHelper.hasListeners(PacketSide.CLIENT, user, position, true));
+        assertEquals(0, ByteBufHelper.readerIndex(position));
+        ByteBufHelper.release(position);
+
+        Object joinGame = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeVarInt(joinGame, PacketType.Play.Server.JOIN_GAME.getId(ClientVersion.getLatest()));
+        assertTrue(PacketEventsImplHelper.hasListeners(PacketSide.SERVER, user, joinGame, true));
+        ByteBufHelper.release(joinGame);
+
+        // Unknown ids still get an event, which reports them
+        Object unknown = UnpooledByteBufAllocationHelper.buffer();
+        ByteBufHelper.writeVarInt(unknown, 0x7FFF);
+        assertTrue(PacketEventsImplHelper.hasListeners(PacketSide.CLIENT, user, unknown, true));
+        ByteBufHelper.release(unknown);
+        eventManager.unregisterAllListeners();
+    }
+}
@@ -0,0 +1,96 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.nbt.LazyNBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.serializer.ByteBufNBTSerializer;
+import com.github.retrooper.packetevents.test.base.BaseDummyAPITest;
+import com.github.retrooper.packetevents.test.base.TestUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LazyNBTCompoundTest extends BaseDummyAPITest {
+
+    private final NBTCompound compound = new NBTCompound();
+
+    @BeforeEach
+    public void createCompound() {
+        NBTCompound nested = new NBTCompound();
+        nested.setTag("count", new NBTInt(3));
+        NBTList<NBTString> lore = NBTList.createStringList();
+        lore.addTag(new NBTString("first"));
+        lore.addTag(new NBTString("second"));
+
+        compound.setTag("name", new NBTString("packetevents"));
+        compound.setTag("nested", nested);
+        compound.setTag("lore", lore);
+    }
+
+    @Test
+    @DisplayName("Unparsed lazy compound is written back byte for byte")
+    public void testUnparsedRoundTrip() throws IOException {
+        byte[] bytes = TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, compound, false));
+        NBT tag = ByteBufNBTSerializer.INSTANCE.deserializeTagLazily(UnpooledByteBufAllocationHelper.wrappedBuffer(bytes), false);
+        assertTrue(tag instanceof LazyNBTCompound);
+        LazyNBTCompound lazy = (LazyNBTCompound) tag;
+        assertFalse(lazy.isParsed());
+        assertArrayEquals(bytes, TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, lazy, false)));
+        assertFalse(lazy.isParsed());
+
+        // Copies share the raw bytes until they are accessed
+        LazyNBTCompound copy = (LazyNBTCompound) lazy.copy();
+        assertSame(lazy.getRawTags(), copy.getRawTags());
+    }
+
+    @Test
+    @DisplayName("Parsed lazy compound equals the original compound")
+    public void testParsedRoundTrip() throws IOException {
+        byte[] bytes = TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, compound, false));
+        LazyNBTCompound lazy = (LazyNBTCompound) ByteBufNBTSerializer.INSTANCE.deserializeTagLazily(UnpooledByteBufAllocationHelper.wrappedBuffer(bytes), false);
+        assertEquals(compound, lazy);
+        assertTrue(lazy.isParsed());
+        assertArrayEquals(bytes, TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, lazy, false)));
+
+        lazy.setTag("name", new NBTString("changed"));
+        assertEquals("changed", lazy.getStringTagValueOrNull("name"));
+        assertFalse(Arrays.equals(bytes, TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, lazy, false))));
+    }
+
+    @Test
+    @DisplayName("Malformed lazy compound stays unparsed")
+    public void testMalformedPayload() throws IOException {
+        byte[] written = TestUtils.write(buffer -> ByteBufNBTSerializer.INSTANCE.serializeTag(buffer, compound, false));
+        byte[] bytes = ((LazyNBTCompound) ByteBufNBTSerializer.INSTANCE.deserializeTagLazily(UnpooledByteBufAllocationHelper.wrappedBuffer(written), false)).getRawTags();
+        // Cut off in the middle of the last tag
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 4);
+        // Starts with an unknown tag type
+        byte[] unknownType = bytes.clone();
+        unknownType[0] = 0x7F;
+
+        for (byte[] payload : Arrays.asList(truncated, unknownType)) {
+            LazyNBTCompound lazy = new LazyNBTCompound(payload);
+            assertThrows(IllegalStateException.class, lazy::getTags);
+            // Fails again instead of looking like an empty or partial compound
+            assertThrows(IllegalStateException.class, lazy::isEmpty);
+            assertThrows(IllegalStateException.class, () -> lazy.getTagOrNull("name"));
+            assertFalse(lazy.isParsed());
+            assertNotNull(lazy.getRawTags());
+        }
+    }
+}
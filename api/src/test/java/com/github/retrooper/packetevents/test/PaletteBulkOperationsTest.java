@@ -0,0 +1,273 @@
+package com.github.retrooper.packetevents.test;
+
+import com.github.retrooper.packetevents.protocol.stream.NetStreamInput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.GlobalPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.ListPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.MapPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.PaletteType;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.SingletonPalette;
+import com.github.retrooper.packetevents.protocol.world.chunk.storage.BitStorage;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PaletteBulkOperationsTest {
+
+    // Sizes which fill the last long, and ones which leave part of it unused for most bits per entry
+    private static final int[] SIZES = {1, 63, 64, 100, 4096, 4097};
+
+    @Test
+    @DisplayName("Unpacking all entries matches getting them one by one")
+    public void testUnpackAll() {
+        Random random = new Random(1);
+        for (int bitsPerEntry = 1; bitsPerEntry <= 32; bitsPerEntry++) {
+            long bound = Math.min(1L << bitsPerEntry, Integer.MAX_VALUE);
+            for (int size : SIZES) {
+                BitStorage storage = new BitStorage(bitsPerEntry, size);
+                int[] expected = new int[size];
+                for (int i = 0; i < size; i++) {
+                    expected[i] = (int) (random.nextDouble() * bound);
+                    storage.set(i, expected[i]);
+                }
+                int[] values = new int[size];
+                storage.unpackAll(values);
+                assertArrayEquals(expected, values, bitsPerEntry + " bits, " + size + " entries");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Packing all entries matches setting them one by one")
+    public void testPackAll() {
+        Random random = new Random(2);
+        for (int bitsPerEntry = 1; bitsPerEntry <= 32; bitsPerEntry++) {
+            long bound = Math.min(1L << bitsPerEntry, Integer.MAX_VALUE);
+            for (int size : SIZES) {
+                BitStorage expected = new BitStorage(bitsPerEntry, size);
+                int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = (int) (random.nextDouble() * bound);
+                    expected.set(i, values[i]);
+                }
+                BitStorage storage = new BitStorage(bitsPerEntry, size);
+                // Bits left over from earlier values must be cleared
+                storage.packAll(new int[size]);
+                storage.packAll(values);
+                assertArrayEquals(expected.getData(), storage.getData(), bitsPerEntry + " bits, " + size + " entries");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Packing rejects values which don't fit")
+    public void testPackAllRejectsValues() {
+        for (int bitsPerEntry = 1; bitsPerEntry <= 32; bitsPerEntry++) {
+            BitStorage storage = new BitStorage(bitsPerEntry, 100);
+            int[] values = new int[100];
+            values[99] = -1;
+            assertThrows(IllegalStateException.class, () -> storage.packAll(values));
+            if (bitsPerEntry < 31) {
+                values[99] = 1 << bitsPerEntry;
+                assertThrows(IllegalStateException.class, () -> storage.packAll(values));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Remapping all entries matches translating them one by one")
+    public void testRemap() {
+        Random random = new Random(3);
+        for (int bitsPerEntry = 1; bitsPerEntry <= 32; bitsPerEntry++) {
+            int count = (int) Math.min(1L << bitsPerEntry, 256);
+            long bound = Math.min(1L << bitsPerEntry, Integer.MAX_VALUE);
+            int[] translation = new int[count];
+            for (int i = 0; i < count; i++) {
+                translation[i] = (int) (random.nextDouble() * bound);
+            }
+            for (int size : SIZES) {
+                BitStorage storage = new BitStorage(bitsPerEntry, size);
+                BitStorage expected = new BitStorage(bitsPerEntry, size);
+                for (int i = 0; i < size; i++) {
+                    int value = random.nextInt(count);
+                    storage.set(i, value);
+                    expected.set(i, translation[value]);
+                }
+                storage.remap(translation);
+                assertArrayEquals(expected.getData(), storage.getData(), bitsPerEntry + " bits, " + size + " entries");
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Setting all states picks the smallest palette")
+    public void testSetAll() {
+        Random random = new Random(4);
+        // Fits the smallest palette, needs a restart with a bigger one, and ends up with the global palette
+        int[] distinctStates = {1, 16, 17, 256, 257};
+        int[] expectedBits = {4, 4, 5, 8, DataPalette.GLOBAL_PALETTE_BITS_PER_ENTRY};
+        for (int i = 0; i < distinctStates.length; i++) {
+            int[] states = new int[PaletteType.CHUNK.getStorageSize()];
+            for (int index = 0; index < states.length; index++) {
+                // Make sure every state is used at least once
+                states[index] = 1000 + (index < distinctStates[i] ? index : random.nextInt(distinctStates[i]));
+            }
+            DataPalette palette = DataPalette.createForChunk();
+            palette.set(0, 0, 0, 1);
+            palette.setAll(states);
+
+            assertArrayEquals(states, palette.getAll());
+            assertEquals(expectedBits[i], palette.storage.getBitsPerEntry(), distinctStates[i] + " states");
+            if (palette.palette instanceof GlobalPalette) {
+                assertTrue(distinctStates[i] > PaletteType.CHUNK.getMaxBitsPerEntry());
+            } else {
+                // Only the states which are used are kept, in the order they appear
+                assertEquals(distinctStates[i], palette.palette.size());
+                for (int id = 0; id < distinctStates[i]; id++) {
+                    assertEquals(1000 + id, palette.palette.idToState(id));
+                }
+            }
+            int[] fromGet = new int[states.length];
+            for (int index = 0; index < states.length; index++) {
+                fromGet[index] = palette.get(index & 15, index >> 8, index >> 4 & 15);
+            }
+            assertArrayEquals(states, fromGet);
+        }
+    }
+
+    @Test
+    @DisplayName("Resizing keeps the palette order")
+    public void testResizeOrder() {
+        Random random = new Random(5);
+        // Resize from the list to the map palette, within the map palette, and to the global palette
+        for (int distinct : new int[]{16, 32, 256}) {
+            int[] states = new int[PaletteType.CHUNK.getStorageSize()];
+            for (int index = 0; index < states.length; index++) {
+                states[index] = 1000 + (index < distinct ? index : random.nextInt(distinct));
+            }
+            DataPalette palette = DataPalette.createForChunk();
+            palette.setAll(states);
+            // Move the last palette entries to the front of the storage,
+            // so the order of first appearance differs from the palette order
+            for (int index = 0; index < 8; index++) {
+                int state = palette.palette.idToState(distinct - 1 - index);
+                palette.set(index & 15, index >> 8, index >> 4 & 15, state);
+            }
+            assertEquals(distinct, palette.palette.size());
+            int[] before = palette.getAll();
+
+            // The order the previous per-index resize produced: old ids in the order they appear in the storage
+            List<Integer> expectedOrder = new ArrayList<>();
+            for (int index = 0; index < before.length; index++) {
+                int state = palette.palette.idToState(palette.storage.get(index));
+                if (!expectedOrder.contains(state)) {
+                    expectedOrder.add(state);
+                }
+            }
+            assertEquals(1000 + distinct - 1, (long) expectedOrder.get(0));
+            int oldBits = palette.storage.getBitsPerEntry();
+            int added = 5000;
+            expectedOrder.add(added);
+
+            int x = 3, y = 7, z = 11;
+            palette.set(x, y, z, added);
+            before[y << 8 | z << 4 | x] = added;
+
+            assertTrue(palette.storage.getBitsPerEntry() > oldBits);
+            assertArrayEquals(before, palette.getAll());
+            if (palette.palette instanceof ListPalette || palette.palette instanceof MapPalette) {
+                assertEquals(expectedOrder.size(), palette.palette.size());
+                for (int id = 0; id < expectedOrder.size(); id++) {
+                    assertEquals((long) expectedOrder.get(id), palette.palette.idToState(id));
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Replacing states works with every palette")
+    public void testReplaceStates() throws Exception {
+        // A single state, the list palette, the map palette and the global palette
+        DataPalette singleton = DataPalette.read(new NetStreamInput(new ByteArrayInputStream(new byte[]{0, 1, 0})), PaletteType.CHUNK);
+        assertTrue(singleton.palette instanceof SingletonPalette);
+        singleton.replaceStates(state -> state + 1);
+        assertEquals(2, singleton.get(0, 0, 0));
+
+        int[][] expectedPalettes = {{16, 4}, {100, 7}, {300, DataPalette.GLOBAL_PALETTE_BITS_PER_ENTRY}};
+        for (int[] expectedPalette : expectedPalettes) {
+            int[] states = new int[PaletteType.CHUNK.getStorageSize()];
+            int[] replaced = new int[states.length];
+            for (int i = 0; i < states.length; i++) {
+                states[i] = 1000 + i % expectedPalette[0];
+                replaced[i] = states[i] % 2 == 0 ? states[i] : states[i] + 1;
+            }
+            DataPalette palette = DataPalette.createForChunk();
+            palette.setAll(states);
+            assertEquals(expectedPalette[1], palette.storage.getBitsPerEntry());
+            palette.replaceStates(state -> state % 2 == 0 ? state : state + 1);
+            assertArrayEquals(replaced, palette.getAll(), expectedPalette[0] + " states");
+        }
+    }
+
+    @Test
+    @DisplayName("Replacing states of the global palette makes room for bigger states")
+    public void testReplaceStatesResizesGlobalStorage() {
+        int[] states = new int[PaletteType.CHUNK.getStorageSize()];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = i % 300;
+        }
+        DataPalette palette = DataPalette.createForChunk();
+        palette.setAll(states);
+        assertTrue(palette.palette instanceof GlobalPalette);
+
+        // Nothing is written if a single state is invalid
+        assertThrows(IllegalArgumentException.class, () -> palette.replaceStates(state -> state == 299 ? -1 : state + 1));
+        assertArrayEquals(states, palette.getAll());
+
+        palette.replaceStates(state -> state == 299 ? 1 << 20 : state);
+        for (int i = 299; i < states.length; i += 300) {
+            states[i] = 1 << 20;
+        }
+        assertEquals(21, palette.storage.getBitsPerEntry());
+        assertArrayEquals(states, palette.getAll());
+    }
+
+    @Test
+    @DisplayName("Replacing states with air or air with other states updates the block count")
+    public void testReplaceStatesBlockCount() {
+        // Sections using the list palette and the global palette
+        for (int distinct : new int[]{3, 300}) {
+            Chunk_v1_18 section = new Chunk_v1_18();
+            for (int i = 0; i < distinct; i++) {
+                section.set(i & 15, i >> 8, i >> 4 & 15, i);
+            }
+            // The empty palette reads air everywhere else
+            assertEquals(distinct - 1, section.getBlockCount());
+
+            // Replace the first block with air
+            section.replaceStates(state -> state == 1 ? 0 : state);
+            assertEquals(distinct - 2, section.getBlockCount());
+            assertEquals(0, section.getBlockId(1, 0, 0));
+
+            // Air now is stone everywhere
+            section.replaceStates(state -> state == 0 ? 1 : state);
+            assertEquals(PaletteType.CHUNK.getStorageSize(), section.getBlockCount());
+            assertTrue(section.isModified());
+
+            // Not touching air keeps the count
+            section.replaceStates(state -> state == 2 ? 5000 : state);
+            assertEquals(PaletteType.CHUNK.getStorageSize(), section.getBlockCount());
+            assertEquals(5000, section.getBlockId(2, 0, 0));
+        }
+    }
+}
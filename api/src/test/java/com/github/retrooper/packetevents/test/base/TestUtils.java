@@ -0,0 +1,67 @@
+package com.github.retrooper.packetevents.test.base;
+
+import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
+import com.github.retrooper.packetevents.netty.buffer.UnpooledByteBufAllocationHelper;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.player.UserProfile;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamInput;
+import com.github.retrooper.packetevents.protocol.stream.ByteBufNetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * Objects and conversions shared by the tests, which need an API set up by {@link BaseDummyAPITest}.
+ */
+public final class TestUtils {
+
+    private TestUtils() {
+    }
+
+    public static User createUser(Object channel) {
+        return new User(channel, ConnectionState.PLAY, ClientVersion.getLatest(), new UserProfile(UUID.randomUUID(), "user"));
+    }
+
+    /**
+     * @return The bytes the packet is sent as, starting with its id
+     */
+    public static byte[] encode(PacketWrapper<?> wrapper) {
+        wrapper.prepareForSend(new EmbeddedChannel(), true, false);
+        try {
+            return ByteBufHelper.copyBytes(wrapper.getBuffer());
+        } finally {
+            ByteBufHelper.release(wrapper.getBuffer());
+        }
+    }
+
+    /**
+     * @return The bytes written by the writer
+     */
+    public static byte[] write(BufferWriter writer) throws IOException {
+        Object buffer = UnpooledByteBufAllocationHelper.buffer();
+        try {
+            writer.write(buffer);
+            return ByteBufHelper.copyBytes(buffer);
+        } finally {
+            ByteBufHelper.release(buffer);
+        }
+    }
+
+    public static byte[] writeSection(Chunk_v1_18 section) throws IOException {
+        return write(buffer -> Chunk_v1_18.write(new ByteBufNetStreamOutput(buffer), section));
+    }
+
+    public static Chunk_v1_18 readSection(byte[] bytes) {
+        return Chunk_v1_18.read(new ByteBufNetStreamInput(UnpooledByteBufAllocationHelper.wrappedBuffer(bytes)));
+    }
+
+    @FunctionalInterface
+    public interface BufferWriter {
+        void write(Object buffer) throws IOException;
+    }
+}
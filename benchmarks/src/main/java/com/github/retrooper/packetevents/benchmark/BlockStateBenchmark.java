@@ -0,0 +1,47 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.world.states.WrappedBlockState;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class BlockStateBenchmark extends BaseBenchmark {
+
+    private static final int COUNT = 1024;
+
+    @Param({"V_1_8", "V_1_16", "V_1_20"})
+    public ClientVersion version;
+
+    private int[] ids;
+
+    @Override
+    protected void setup() {
+        // Spread the ids over all states of the version, this also loads the mappings before measuring
+        int maxId = 0;
+        for (int id = 0; id < 1 << 16; id++) {
+            if (WrappedBlockState.getByGlobalId(version, id, false).getGlobalId() == id) {
+                maxId = id;
+            }
+        }
+        ids = new int[COUNT];
+        for (int i = 0; i < COUNT; i++) {
+            ids[i] = (int) ((long) i * maxId / COUNT);
+        }
+    }
+
+    @Benchmark
+    public void getByGlobalId(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(WrappedBlockState.getByGlobalId(version, id, false));
+        }
+    }
+
+    @Benchmark
+    public void getByGlobalIdCloned(Blackhole blackhole) {
+        for (int id : ids) {
+            blackhole.consume(WrappedBlockState.getByGlobalId(version, id));
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.player.User;
+import com.github.retrooper.packetevents.protocol.stream.NetStreamOutput;
+import com.github.retrooper.packetevents.protocol.world.chunk.BaseChunk;
+import com.github.retrooper.packetevents.protocol.world.chunk.Column;
+import com.github.retrooper.packetevents.protocol.world.chunk.TileEntity;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_16.Chunk_v1_9;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v1_8.Chunk_v1_8;
+import com.github.retrooper.packetevents.protocol.world.chunk.impl.v_1_18.Chunk_v1_18;
+import com.github.retrooper.packetevents.protocol.world.chunk.palette.DataPalette;
+import com.github.retrooper.packetevents.wrapper.play.server.WrapperPlayServerChunkData;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.TimeUnit;
+
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ChunkDataBenchmark extends BaseBenchmark {
+
+    // The three chunk layouts: nibble arrays, paletted sections with a bit mask, paletted sections without one
+    @Param({"V_1_8", "V_1_16", "V_1_20"})
+    public ServerVersion version;
+
+    // Only the lower half of the world is filled, like a plains chunk
+    private static final int FILLED_SECTIONS = 8;
+    private static final int[] LEGACY_BLOCKS = {1 << 4, 2 << 4, 3 << 4, 12 << 4, 13 << 4, 17 << 4, 18 << 4, 24 << 4};
+    private static final int[] BLOCKS = {1, 9, 10, 14, 66, 112, 157, 5000};
+
+    private User user;
+    private ByteBuf packet;
+    private ByteBuf output;
+    private ChunkData decoded;
+
+    @Override
+    protected void setup() {
+        boolean v1_18 = version.isNewerThanOrEquals(ServerVersion.V_1_18);
+        user = new User(null, ConnectionState.PLAY, version.toClientVersion(), null);
+        user.setTotalWorldHeight(v1_18 ? 384 : 256);
+
+        packet = Unpooled.buffer();
+        if (v1_18) {
+            writeModernPacket();
+        } else {
+            new ChunkData(version, user, createColumn(), packet).write();
+        }
+
+        // Writing re-encodes the decoded packet, which also carries the light data of modern versions
+        decoded = read();
+        output = Unpooled.buffer(packet.capacity());
+    }
+
+    @Benchmark
+    public ChunkData read() {
+        packet.readerIndex(0);
+        ChunkData wrapper = new ChunkData(version, user, null, packet);
+        wrapper.read();
+        return wrapper;
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        output.clear();
+        decoded.buffer = output;
+        decoded.write();
+        return output;
+    }
+
+    private Column createColumn() {
+        boolean v1_9 = version.isNewerThanOrEquals(ServerVersion.V_1_9);
+        // The 1.8 writer needs the exact array type
+        BaseChunk[] chunks = v1_9 ? new Chunk_v1_9[16] : new Chunk_v1_8[16];
+        for (int index = 0; index < FILLED_SECTIONS; index++) {
+            BaseChunk chunk = v1_9 ? new Chunk_v1_9(0, DataPalette.createForChunk()) : new Chunk_v1_8(true);
+            fill(chunk, v1_9 ? BLOCKS : LEGACY_BLOCKS);
+            chunks[index] = chunk;
+        }
+
+        if (version.isOlderThan(ServerVersion.V_1_13)) {
+            return new Column(0, 0, true, chunks, new TileEntity[0], new byte[256]);
+        }
+        return new Column(0, 0, true, chunks, new TileEntity[0], createHeightMaps(), new int[1024]);
+    }
+
+    private void writeModernPacket() {
+        ByteArrayOutputStream sections = new ByteArrayOutputStream();
+        NetStreamOutput sectionsOut = new NetStreamOutput(sections);
+        for (int index = 0; index < user.getTotalWorldHeight() >> 4; index++) {
+            Chunk_v1_18 chunk = new Chunk_v1_18();
+            if (index < FILLED_SECTIONS) {
+                fill(chunk, BLOCKS);
+            }
+            Chunk_v1_18.write(sectionsOut, chunk);
+        }
+
+        ChunkData wrapper = new ChunkData(version, user, null, packet);
+        wrapper.writeInt(0);
+        wrapper.writeInt(0);
+        wrapper.writeNBT(createHeightMaps());
+        wrapper.writeByteArray(sections.toByteArray());
+        // No tile entities
+        wrapper.writeVarInt(0);
+        if (version.isOlderThanOrEquals(ServerVersion.V_1_19_4)) {
+            wrapper.writeBoolean(true);
+        }
+        // Empty light masks and light arrays
+        for (int i = 0; i < 4; i++) {
+            wrapper.writeLongArray(new long[0]);
+        }
+        wrapper.writeVarInt(0);
+        wrapper.writeVarInt(0);
+    }
+
+    private static void fill(BaseChunk chunk, int[] blocks) {
+        for (int y = 0; y < 16; y++) {
+            for (int z = 0; z < 16; z++) {
+                for (int x = 0; x < 16; x++) {
+                    chunk.set(x, y, z, blocks[(x * 31 + y * 17 + z * 7) & 7]);
+                }
+            }
+        }
+    }
+
+    private static NBTCompound createHeightMaps() {
+        NBTCompound heightMaps = new NBTCompound();
+        heightMaps.setTag("MOTION_BLOCKING", new NBTLongArray(new long[37]));
+        return heightMaps;
+    }
+
+    // Lets us pick the version and user of the packet, without going through a packet event
+    public static final class ChunkData extends WrapperPlayServerChunkData {
+        private ChunkData(ServerVersion version, User user, Column column, ByteBuf buffer) {
+            super(column);
+            this.serverVersion = version;
+            this.clientVersion = version.toClientVersion();
+            this.user = user;
+            this.buffer = buffer;
+        }
+    }
+}
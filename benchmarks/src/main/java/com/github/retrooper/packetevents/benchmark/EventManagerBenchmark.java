@@ -0,0 +1,64 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.event.EventManager;
+import com.github.retrooper.packetevents.event.PacketListener;
+import com.github.retrooper.packetevents.event.PacketListenerPriority;
+import com.github.retrooper.packetevents.event.PacketReceiveEvent;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.ConnectionState;
+import com.github.retrooper.packetevents.protocol.packettype.PacketType;
+import com.github.retrooper.packetevents.protocol.packettype.PacketTypeCommon;
+import com.github.retrooper.packetevents.protocol.player.ClientVersion;
+import com.github.retrooper.packetevents.protocol.player.User;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+import java.util.Collections;
+import java.util.Set;
+
+public class EventManagerBenchmark extends BaseBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int listeners;
+
+    // Whether the listeners only ask for packets of another type, which the dispatch table should skip
+    @Param({"false", "true"})
+    public boolean filtered;
+
+    private EventManager eventManager;
+    private PacketReceiveEvent event;
+    private int received;
+
+    @Override
+    protected void setup() throws Exception {
+        eventManager = new EventManager();
+        Set<PacketTypeCommon> packetTypes = filtered ? Collections.singleton(PacketType.Play.Client.CHAT_MESSAGE) : null;
+        for (int i = 0; i < listeners; i++) {
+            eventManager.registerListener(new PacketListener() {
+                @Override
+                public Set<PacketTypeCommon> getPacketTypes() {
+                    return packetTypes;
+                }
+
+                @Override
+                public void onPacketReceive(PacketReceiveEvent event) {
+                    received++;
+                }
+            }, PacketListenerPriority.NORMAL);
+        }
+
+        User user = new User(null, ConnectionState.PLAY, ClientVersion.getLatest(), null);
+        PacketTypeCommon packetType = PacketType.Play.Client.ANIMATION;
+        event = new PacketReceiveEvent(packetType.getId(user.getClientVersion()), packetType,
+                ServerVersion.getLatest(), null, user, null, Unpooled.EMPTY_BUFFER) {
+        };
+    }
+
+    @Benchmark
+    public int callEvent() {
+        eventManager.callEvent(event);
+        return received;
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.manager.server.ServerVersion;
+import com.github.retrooper.packetevents.protocol.nbt.NBT;
+import com.github.retrooper.packetevents.protocol.nbt.NBTCompound;
+import com.github.retrooper.packetevents.protocol.nbt.NBTInt;
+import com.github.retrooper.packetevents.protocol.nbt.NBTList;
+import com.github.retrooper.packetevents.protocol.nbt.NBTLongArray;
+import com.github.retrooper.packetevents.protocol.nbt.NBTString;
+import com.github.retrooper.packetevents.protocol.nbt.NBTType;
+import com.github.retrooper.packetevents.protocol.nbt.codec.NBTCodec;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+
+public class NBTBenchmark extends BaseBenchmark {
+
+    // 1.20.2 dropped the name of the root tag
+    @Param({"V_1_20", "V_1_20_2"})
+    public ServerVersion version;
+
+    private NBTCompound tag;
+    private ByteBuf buffer;
+
+    @Override
+    protected void setup() {
+        // Looks like the height maps of a chunk and a named, enchanted item
+        tag = new NBTCompound();
+        long[] heightMap = new long[37];
+        for (int i = 0; i < heightMap.length; i++) {
+            heightMap[i] = 0x0102040810204080L * (i + 1);
+        }
+        tag.setTag("MOTION_BLOCKING", new NBTLongArray(heightMap));
+        tag.setTag("WORLD_SURFACE", new NBTLongArray(heightMap.clone()));
+
+        NBTCompound display = new NBTCompound();
+        display.setTag("Name", new NBTString("{\"text\":\"Benchmark\",\"italic\":false}"));
+        NBTList<NBTString> lore = new NBTList<>(NBTType.STRING);
+        for (int i = 0; i < 4; i++) {
+            lore.addTag(new NBTString("{\"text\":\"Line " + i + "\"}"));
+        }
+        display.setTag("Lore", lore);
+        tag.setTag("display", display);
+
+        NBTList<NBTCompound> enchantments = new NBTList<>(NBTType.COMPOUND);
+        for (String id : new String[]{"minecraft:sharpness", "minecraft:unbreaking", "minecraft:mending"}) {
+            NBTCompound enchantment = new NBTCompound();
+            enchantment.setTag("id", new NBTString(id));
+            enchantment.setTag("lvl", new NBTInt(3));
+            enchantments.addTag(enchantment);
+        }
+        tag.setTag("Enchantments", enchantments);
+
+        buffer = Unpooled.buffer();
+        NBTCodec.writeNBTToBuffer(buffer, version, tag);
+    }
+
+    @Benchmark
+    public NBT read() {
+        buffer.readerIndex(0);
+        return NBTCodec.readNBTFromBuffer(buffer, version);
+    }
+
+    @Benchmark
+    public ByteBuf write() {
+        buffer.clear();
+        NBTCodec.writeNBTToBuffer(buffer, version, tag);
+        return buffer;
+    }
+}
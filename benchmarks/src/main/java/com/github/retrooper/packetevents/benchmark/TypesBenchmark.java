@@ -0,0 +1,31 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.protocol.item.type.ItemTypes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// A class is only initialised once per JVM, so every measurement needs its own fork,
+// in which the benchmark method is called exactly once.
+// The inherited setup doesn't touch ItemTypes, so its initialisation happens inside that single timed call.
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1, batchSize = 1)
+@Fork(10)
+public class TypesBenchmark extends BaseBenchmark {
+
+    @Benchmark
+    public int initItemTypes() throws ClassNotFoundException {
+        // Initialise the class explicitly, rather than relying on the first access below
+        Class.forName(ItemTypes.class.getName(), true, TypesBenchmark.class.getClassLoader());
+        return ItemTypes.values().size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.github.retrooper.packetevents.benchmark;
+
+import com.github.retrooper.packetevents.benchmark.base.BaseBenchmark;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.infra.Blackhole;
+
+public class VarIntBenchmark extends BaseBenchmark {
+
+    private static final int COUNT = 1024;
+
+    // Amount of bytes every var int takes up
+    @Param({"1", "3", "5"})
+    public int size;
+
+    private ByteBuf buffer;
+    private PacketWrapper<?> wrapper;
+    private int value;
+
+    @Override
+    protected void setup() {
+        value = size == 5 ? -1 : (1 << (7 * (size - 1))) + 1;
+        buffer = Unpooled.buffer(COUNT * 5);
+        wrapper = PacketWrapper.createUniversalPacketWrapper(buffer);
+        for (int i = 0; i < COUNT; i++) {
+            wrapper.writeVarInt(value);
+        }
+    }
+
+    @Benchmark
+    public void readVarInt(Blackhole blackhole) {
+        buffer.readerIndex(0);
+        for (int i = 0; i < COUNT; i++) {
+            blackhole.consume(wrapper.readVarInt());
+        }
+    }
+
+    @Benchmark
+    public ByteBuf writeVarInt() {
+        buffer.clear();
+        for (int i = 0; i < COUNT; i++) {
+            wrapper.writeVarInt(value);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,46 @@
+package com.github.retrooper.packetevents.benchmark.base;
+
+import be.seeseemelk.mockbukkit.MockBukkit;
+import com.github.retrooper.packetevents.PacketEvents;
+import com.github.retrooper.packetevents.test.base.TestPacketEventsBuilder;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+// Same setup as BaseDummyAPITest, every benchmark runs against the latest server version
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class BaseBenchmark {
+
+    @Setup(Level.Trial)
+    public final void setupAPI() throws Exception {
+        MockBukkit.mock();
+        PacketEvents.setAPI(TestPacketEventsBuilder.build(MockBukkit.createMockPlugin("packetevents")));
+        PacketEvents.getAPI().load();
+        setup();
+    }
+
+    // Called once the API is set up, JMH may run setup methods of subclasses before ours
+    protected void setup() throws Exception {
+    }
+
+    @TearDown(Level.Trial)
+    public void teardownAPI() {
+        MockBukkit.unmock();
+        PacketEvents.setAPI(null);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * This file is part of packetevents - https://github.com/retrooper/packetevents
+ * Copyright (C) 2022 retrooper and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package io.github.retrooper.packetevents.impl.netty.buffer;
+
+import io.netty.buffer.ByteBuf;
+
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Codecs working on netty's {@link ByteBuf} directly, so the hot paths don't pay for the Object based
+ * {@link com.github.retrooper.packetevents.netty.buffer.ByteBufOperator} on every single byte.
+ */
+public final class NettyByteBufHelper {
+    private NettyByteBufHelper() {
+    }
+
+    public static int readVarInt(ByteBuf buffer) {
+        // Most var ints are packet ids or small numbers, which fit in a single byte
+        byte currentByte = buffer.readByte();
+        if ((currentByte & 0x80) != 0x80) {
+            return currentByte;
+        }
+        int value = currentByte & 0x7F;
+        int length = 1;
+        do {
+            currentByte = buffer.readByte();
+            value |= (currentByte & 0x7F) << (length * 7);
+            length++;
+            if (length > 5) {
+                throw new RuntimeException("VarInt is too large. Must be smaller than 5 bytes.");
+            }
+        } while ((currentByte & 0x80) == 0x80);
+        return value;
+    }
+
+    public static void writeVarInt(ByteBuf buffer, int value) {
+        // Write all bytes of the var int at once, instead of checking the capacity for each byte
+        if ((value & (0xFFFFFFFF << 7)) == 0) {
+            buffer.writeByte(value);
+        } else if ((value & (0xFFFFFFFF << 14)) == 0) {
+            buffer.writeShort((value & 0x7F | 0x80) << 8 | (value >>> 7));
+        } else if ((value & (0xFFFFFFFF << 21)) == 0) {
+            buffer.writeMedium((value & 0x7F | 0x80) << 16 | ((value >>> 7) & 0x7F | 0x80) << 8 | (value >>> 14));
+        } else if ((value & (0xFFFFFFFF << 28)) == 0) {
+            buffer.writeInt((value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
+                    | ((value >>> 14) & 0x7F | 0x80) << 8 | (value >>> 21));
+        } else {
+            buffer.writeInt((value & 0x7F | 0x80) << 24 | ((value >>> 7) & 0x7F | 0x80) << 16
+                    | ((value >>> 14) & 0x7F | 0x80) << 8 | ((value >>> 21) & 0x7F | 0x80));
+            buffer.writeByte(value >>> 28);
+        }
+    }
+
+    public static void readLongs(ByteBuf buffer, long[] destination, int offset, int length) {
+        int bytes = length * Long.BYTES;
+        if (bytes > buffer.readableBytes()) {
+            throw new IndexOutOfBoundsException(length + " longs exceed readable bytes " + buffer.readableBytes());
+        }
+        // Copy all longs at once through a view of the buffer, instead of reading them one by one
+        buffer.nioBuffer(buffer.readerIndex(), bytes).order(ByteOrder.BIG_ENDIAN).asLongBuffer().get(destination, offset, length);
+        buffer.skipBytes(bytes);
+    }
+
+    public static void writeLongs(ByteBuf buffer, long[] source, int offset, int length) {
+        int bytes = length * Long.BYTES;
+        buffer.ensureWritable(bytes);
+        if (buffer.nioBufferCount() != 1) {
+            // The view would be a copy, so writes to it wouldn't end up in the buffer
+            for (int i = offset; i < offset + length; i++) {
+                buffer.writeLong(source[i]);
+            }
+            return;
+        }
+        int writerIndex = buffer.writerIndex();
+        buffer.nioBuffer(writerIndex, bytes).order(ByteOrder.BIG_ENDIAN).asLongBuffer().put(source, offset, length);
+        buffer.writerIndex(writerIndex + bytes);
+    }
+
+    public static String readUTF8(ByteBuf buffer, int length) {
+        int readerIndex = buffer.readerIndex();
+        if (length > buffer.readableBytes()) {
+            throw new IndexOutOfBoundsException("String length " + length + " exceeds readable bytes " + buffer.readableBytes());
+        }
+        String string;
+        if (buffer.hasArray()) {
+            // Decode straight from the backing array, the JDK decoder has a fast path for pure ASCII strings
+            string = new String(buffer.array(), buffer.arrayOffset() + readerIndex, length, StandardCharsets.UTF_8);
+        } else {
+            string = buffer.toString(readerIndex, length, StandardCharsets.UTF_8);
+        }
+        buffer.readerIndex(readerIndex + length);
+        return string;
+    }
+
+    /**
+     * Encode a string as UTF-8 into the buffer. Unlike {@link String#getBytes(java.nio.charset.Charset)},
+     * this doesn't create a temporary byte array for heap buffers or ASCII strings.
+     * Unpaired surrogates are written as '?', like the JDK encoder does.
+     *
+     * @param buffer Buffer to write to
+     * @param string String to write
+     * @param length Encoded length of the string in bytes
+     */
+    public static void writeUTF8(ByteBuf buffer, String string, int length) {
+        buffer.ensureWritable(length);
+        int writerIndex = buffer.writerIndex();
+        if (buffer.hasArray()) {
+            encodeUTF8(buffer.array(), buffer.arrayOffset() + writerIndex, string, 0);
+        } else {
+            // Most strings sent are ASCII, which can be written without an intermediate array
+            int stringLength = string.length();
+            int i = 0;
+            for (char c; i < stringLength && (c = string.charAt(i)) < 0x80; i++) {
+                buffer.setByte(writerIndex + i, c);
+            }
+            if (i < stringLength) {
+                byte[] bytes = new byte[length - i];
+                encodeUTF8(bytes, 0, string, i);
+                buffer.setBytes(writerIndex + i, bytes);
+            }
+        }
+        buffer.writerIndex(writerIndex + length);
+    }
+
+    private static void encodeUTF8(byte[] bytes, int offset, String string, int start) {
+        int length = string.length();
+        for (int i = start; i < length; i++) {
+            char c = string.charAt(i);
+            if (c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | (c >> 6));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else if (!Character.isSurrogate(c)) {
+                bytes[offset++] = (byte) (0xE0 | (c >> 12));
+                bytes[offset++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(string.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, string.charAt(++i));
+                bytes[offset++] = (byte) (0xF0 | (codePoint >> 18));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                bytes[offset++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                bytes[offset++] = '?';
+            }
+        }
+    }
+}
@@ -110,6 +110,11 @@ public class ChannelOperatorImpl implements ChannelOperator {
         ((Channel) channel).eventLoop().execute(runnable);
     }
 
+    @Override
+    public boolean inEventLoop(Object channel) {
+        return ((Channel) channel).eventLoop().inEventLoop();
+    }
+
     @Override
     public Object pooledByteBuf(Object channel) {
         return ((Channel) channel).alloc().buffer();
@@ -19,6 +19,7 @@
 package io.github.retrooper.packetevents.netty.buffer;
 
 import com.github.retrooper.packetevents.netty.buffer.ByteBufOperator;
+import io.github.retrooper.packetevents.impl.netty.buffer.NettyByteBufHelper;
 import io.netty.buffer.ByteBuf;
 
 import java.nio.charset.Charset;
@@ -234,4 +235,34 @@ public class ByteBufOperatorModernImpl implements ByteBufOperator {
     public Object resetWriterIndex(Object buffer) {
         return ((ByteBuf)buffer).resetWriterIndex();
     }
+
+    @Override
+    public int readVarInt(Object buffer) {
+        return NettyByteBufHelper.readVarInt((ByteBuf) buffer);
+    }
+
+    @Override
+    public void writeVarInt(Object buffer, int value) {
+        NettyByteBufHelper.writeVarInt((ByteBuf) buffer, value);
+    }
+
+    @Override
+    public void readLongs(Object buffer, long[] destination, int offset, int length) {
+        NettyByteBufHelper.readLongs((ByteBuf) buffer, destination, offset, length);
+    }
+
+    @Override
+    public void writeLongs(Object buffer, long[] source, int offset, int length) {
+        NettyByteBufHelper.writeLongs((ByteBuf) buffer, source, offset, length);
+    }
+
+    @Override
+    public String readUTF8(Object buffer, int length) {
+        return NettyByteBufHelper.readUTF8((ByteBuf) buffer, length);
+    }
+
+    @Override
+    public void writeUTF8(Object buffer, String string, int length) {
+        NettyByteBufHelper.writeUTF8((ByteBuf) buffer, string, length);
+    }
 }
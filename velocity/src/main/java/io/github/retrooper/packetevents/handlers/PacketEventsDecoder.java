@@ -20,12 +20,14 @@ package io.github.retrooper.packetevents.handlers;
 
 import com.github.retrooper.packetevents.PacketEvents;
 import com.github.retrooper.packetevents.event.PacketReceiveEvent;
-import com.github.retrooper.packetevents.netty.buffer.ByteBufHelper;
 import com.github.retrooper.packetevents.netty.channel.ChannelHelper;
+import com.github.retrooper.packetevents.protocol.PacketSide;
 import com.github.retrooper.packetevents.protocol.player.User;
 import com.github.retrooper.packetevents.util.EnumUtil;
 import com.github.retrooper.packetevents.util.EventCreationUtil;
+import com.github.retrooper.packetevents.util.PacketEventsImplHelper;
 import com.github.retrooper.packetevents.util.reflection.Reflection;
+import com.github.retrooper.packetevents.wrapper.PacketWrapper;
 import com.velocitypowered.api.proxy.Player;
 import io.github.retrooper.packetevents.injector.ServerConnectionInitializer;
 import io.netty.buffer.ByteBuf;
@@ -48,29 +50,40 @@ public class PacketEventsDecoder extends MessageToMessageDecoder<ByteBuf> {
     }
 
     public void read(ChannelHandlerContext ctx, ByteBuf byteBuf, List<Object> output) throws Exception {
-        ByteBuf transformed = ctx.alloc().buffer().writeBytes(byteBuf);
-        try {
-            int firstReaderIndex = transformed.readerIndex();
-            PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(), user, player,
-                    transformed, false);
-            int readerIndex = transformed.readerIndex();
-            PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> transformed.readerIndex(readerIndex));
-            if (!packetReceiveEvent.isCancelled()) {
-                if (packetReceiveEvent.getLastUsedWrapper() != null) {
-                    ByteBufHelper.clear(packetReceiveEvent.getByteBuf());
-                    packetReceiveEvent.getLastUsedWrapper().writeVarInt(packetReceiveEvent.getPacketId());
-                    packetReceiveEvent.getLastUsedWrapper().write();
+        if (!PacketEventsImplHelper.hasListeners(PacketSide.CLIENT, user, byteBuf, false)) {
+            output.add(byteBuf.retain());
+            return;
+        }
+        int firstReaderIndex = byteBuf.readerIndex();
+        PacketReceiveEvent packetReceiveEvent = EventCreationUtil.createReceiveEvent(ctx.channel(), user, player,
+                byteBuf, false);
+        int readerIndex = byteBuf.readerIndex();
+        PacketEvents.getAPI().getEventManager().callEvent(packetReceiveEvent, () -> byteBuf.readerIndex(readerIndex));
+        if (!packetReceiveEvent.isCancelled()) {
+            PacketWrapper<?> wrapper = packetReceiveEvent.getLastUsedWrapper();
+            if (wrapper != null) {
+                // The incoming buffer is usually a fixed-size slice of the frame, so re-encode into a buffer of our own
+                ByteBuf rewritten = ctx.alloc().buffer();
+                try {
+                    wrapper.buffer = rewritten;
+                    packetReceiveEvent.setByteBuf(rewritten);
+                    wrapper.writeVarInt(packetReceiveEvent.getPacketId());
+                    wrapper.write();
+                } catch (Exception e) {
+                    rewritten.release();
+                    throw e;
                 }
-                transformed.readerIndex(firstReaderIndex);
-                output.add(transformed.retain());
+                output.add(rewritten);
+            } else {
+                // Nobody touched the packet, pass on the original buffer without copying it
+                byteBuf.readerIndex(firstReaderIndex);
+                output.add(byteBuf.retain());
             }
-            if (packetReceiveEvent.hasPostTasks()) {
-                for (Runnable task : packetReceiveEvent.getPostTasks()) {
-                    task.run();
-                }
+        }
+        if (packetReceiveEvent.hasPostTasks()) {
+            for (Runnable task : packetReceiveEvent.getPostTasks()) {
+                task.run();
             }
-        } finally {
-            transformed.release();
         }
     }
 